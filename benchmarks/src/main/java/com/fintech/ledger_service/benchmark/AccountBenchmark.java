@@ -0,0 +1,50 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pure in-memory cost of the balance arithmetic on {@link Account}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AccountBenchmark {
+
+    private Account account;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        account = new Account(1L, Money.of("1000000.00"));
+        amount = Money.of("12.34");
+    }
+
+    @Benchmark
+    public Money credit() {
+        account.credit(amount);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Money debitThenCredit() {
+        account.debit(amount);
+        account.credit(amount);
+        return account.getBalance();
+    }
+}
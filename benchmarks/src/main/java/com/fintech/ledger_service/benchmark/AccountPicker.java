@@ -0,0 +1,71 @@
+package com.fintech.ledger_service.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses distinct source/destination accounts for a transfer.
+ * <p>
+ * {@code UNIFORM} spreads load evenly. {@code SKEWED} is a hot spot: 80% of picks go to the first 1% of accounts,
+ * approximating merchant settlement accounts that take a large share of all traffic. {@code ZIPFIAN} ranks
+ * accounts by popularity, the k-th account being picked in proportion to 1/k^0.99 as in YCSB, so load tails off
+ * gradually instead of falling off a cliff.
+ */
+public enum AccountPicker {
+    UNIFORM {
+        @Override
+        int pickIndex(int accountCount, ThreadLocalRandom random) {
+            return random.nextInt(accountCount);
+        }
+    },
+    SKEWED {
+        @Override
+        int pickIndex(int accountCount, ThreadLocalRandom random) {
+            int hotCount = Math.max(1, accountCount / 100);
+            return random.nextInt(100) < 80 ? random.nextInt(hotCount) : random.nextInt(accountCount);
+        }
+    },
+    ZIPFIAN {
+        private static final double EXPONENT = 0.99;
+
+        // Cumulative probabilities of the first k accounts, for the last account count seen
+        private volatile double[] cumulative = new double[0];
+
+        @Override
+        int pickIndex(int accountCount, ThreadLocalRandom random) {
+            double[] distribution = cumulative;
+            if (distribution.length != accountCount) {
+                distribution = zipfian(accountCount);
+                cumulative = distribution;
+            }
+            int index = Arrays.binarySearch(distribution, random.nextDouble());
+            return Math.min(index < 0 ? -index - 1 : index, accountCount - 1);
+        }
+
+        private static double[] zipfian(int accountCount) {
+            double[] distribution = new double[accountCount];
+            double sum = 0;
+            for (int k = 0; k < accountCount; k++) {
+                sum += 1 / Math.pow(k + 1, EXPONENT);
+                distribution[k] = sum;
+            }
+            for (int k = 0; k < accountCount; k++) {
+                distribution[k] /= sum;
+            }
+            return distribution;
+        }
+    };
+
+    abstract int pickIndex(int accountCount, ThreadLocalRandom random);
+
+    long[] pickPair(List<Long> accountIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = pickIndex(accountIds.size(), random);
+        int to = pickIndex(accountIds.size(), random);
+        while (to == from) {
+            to = random.nextInt(accountIds.size());
+        }
+        return new long[]{accountIds.get(from), accountIds.get(to)};
+    }
+}
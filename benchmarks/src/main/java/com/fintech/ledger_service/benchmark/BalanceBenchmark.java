@@ -0,0 +1,84 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fintech.ledger_service.data.BatchMode;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.dto.TransferRequest;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.service.LedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger-derived reads as an account's history grows: {@link LedgerService#getAccountBalance}
+ * (a SUM over the account's entries) and {@link LedgerService#getAccountHistory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class BalanceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"100", "10000", "50000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private Long accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = LedgerBenchmarkContext.start();
+        ledgerService = context.getBean(LedgerService.class);
+
+        accountId = ledgerService.createAccount(Money.of("1000000000.00")).getId();
+        Long counterpartyId = ledgerService.createAccount(Money.ZERO).getId();
+
+        // Each transfer adds one entry to the measured account's history
+        for (int written = 0; written < historySize; written += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, historySize - written);
+            List<TransferRequest> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(new TransferRequest(UUID.randomUUID().toString(), accountId, counterpartyId, AMOUNT));
+            }
+            ledgerService.applyTransfers(batch, BatchMode.INDEPENDENT);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Money getAccountBalance() {
+        return ledgerService.getAccountBalance(accountId);
+    }
+
+    @Benchmark
+    public List<LedgerEntry> getAccountHistory() {
+        return ledgerService.getAccountHistory(accountId);
+    }
+}
@@ -0,0 +1,58 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (e.g. two ledger-service versions) benchmark by benchmark.
+ * <p>
+ * Prints the baseline and candidate scores and the relative change for every benchmark/parameter
+ * combination present in both files. Usage: {@code BenchmarkDiff <baseline.json> <candidate.json>}
+ */
+public final class BenchmarkDiff {
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkDiff <baseline.json> <candidate.json>");
+            System.exit(1);
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(mapper.readTree(Path.of(args[0]).toFile()));
+        Map<String, JsonNode> candidate = index(mapper.readTree(Path.of(args[1]).toFile()));
+
+        System.out.printf("%-90s %14s %14s %9s %s%n", "Benchmark", "Baseline", "Candidate", "Change", "Unit");
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            JsonNode after = candidate.get(entry.getKey());
+            if (after == null) {
+                continue;
+            }
+            double before = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double now = after.path("primaryMetric").path("score").asDouble();
+            double change = before == 0 ? 0 : (now - before) / before * 100;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%n", entry.getKey(), before, now, change,
+                    after.path("primaryMetric").path("scoreUnit").asText());
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+}
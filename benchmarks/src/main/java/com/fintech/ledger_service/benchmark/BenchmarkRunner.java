@@ -0,0 +1,45 @@
+package com.fintech.ledger_service.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON.
+ * <p>
+ * The first argument is the result file; any further arguments are passed to JMH unchanged
+ * (benchmark include patterns, -f, -wi, -i, -t, ...). Compare two result files with {@link BenchmarkDiff}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: BenchmarkRunner <result.json> [jmh options]");
+            System.exit(1);
+        }
+
+        Path resultFile = Path.of(args[0]).toAbsolutePath();
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+
+        CommandLineOptions commandLine = new CommandLineOptions(Arrays.copyOfRange(args, 1, args.length));
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+
+        new Runner(options).run();
+        System.out.println("Benchmark results written to " + resultFile);
+    }
+}
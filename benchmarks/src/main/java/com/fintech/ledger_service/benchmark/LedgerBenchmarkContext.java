@@ -0,0 +1,44 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fintech.ledger_service.LedgerServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the ledger service without the web layer against a private in-memory H2 database.
+ */
+final class LedgerBenchmarkContext {
+
+    private LedgerBenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.fintech.ledger_service", "WARN");
+        properties.put("logging.level.org.springframework.transaction", "WARN");
+        properties.putAll(overrides);
+
+        // Passed as command-line arguments so they take precedence over application.yml
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+
+        return new SpringApplicationBuilder(LedgerServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+}
@@ -0,0 +1,86 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.data.IdGeneratorType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger entry insert throughput with random UUID versus time-ordered primary keys, on top of an
+ * existing table so the primary key index is deep enough for page placement to matter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class LedgerEntryInsertBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final Money AMOUNT = Money.of("0.01");
+
+    @Param({"RANDOM_UUID", "TIME_ORDERED"})
+    public IdGeneratorType generator;
+
+    @Param({"500000"})
+    public int preloadedEntries;
+
+    private ConfigurableApplicationContext context;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private IdGenerator idGenerator;
+    private TransactionTemplate transactionTemplate;
+    private long accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = LedgerBenchmarkContext.start(Map.of("ledger.ids.generator", generator));
+        ledgerEntryRepository = context.getBean(LedgerEntryRepository.class);
+        idGenerator = context.getBean(IdGenerator.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        for (int written = 0; written < preloadedEntries; written += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() {
+        List<LedgerEntry> entries = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String transferId = idGenerator.nextId();
+            entries.add(new LedgerEntry(idGenerator.nextId(), transferId, accountId++ % 1000, AMOUNT, EntryType.CREDIT));
+        }
+        transactionTemplate.executeWithoutResult(status -> ledgerEntryRepository.saveAll(entries));
+    }
+}
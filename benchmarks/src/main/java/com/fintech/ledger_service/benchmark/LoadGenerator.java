@@ -0,0 +1,353 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives {@code POST /ledger/transfer} and {@code GET /accounts/{id}} against a running ledger service and checks
+ * the ledger afterwards.
+ * <p>
+ * Unlike the JMH benchmarks this goes through HTTP, JSON, Tomcat and the connection pool, so it shows how the
+ * whole service behaves under concurrent load. Accounts are created up front with {@code POST /accounts/bulk};
+ * each worker then loops until the run ends, picking accounts with an {@link AccountPicker} and resending a
+ * recently sent transfer for the configured share of duplicates. Latencies recorded during the warmup are
+ * discarded.
+ * <p>
+ * After the run the ledger must hold these invariants, otherwise the process exits with status 1:
+ * <ul>
+ *   <li>the accounts still hold the money they were created with in total</li>
+ *   <li>no account balance is negative</li>
+ *   <li>every transfer since the run started is balanced (trial balance audit)</li>
+ *   <li>each account moved by exactly its successful transfers, so duplicates were applied once; skipped when
+ *       some transfer's outcome is unknown (timeout or server error)</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int RECENT_TRANSFERS = 4096;
+    // Latencies are recorded in microseconds, up to a minute
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Options options;
+    private final HttpClient client;
+    private final Recorder transferLatency = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final Recorder readLatency = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder transfersSucceeded = new LongAdder();
+    private final LongAdder transfersRejected = new LongAdder();
+    private final LongAdder duplicatesSent = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder unknownOutcomes = new LongAdder();
+    private final AtomicLong transfersSent = new AtomicLong();
+    // Ring of the last transfers sent, the pool duplicates are drawn from
+    private final AtomicReferenceArray<Transfer> recentTransfers = new AtomicReferenceArray<>(RECENT_TRANSFERS);
+    private final Map<String, Transfer> appliedTransfers = new ConcurrentHashMap<>();
+
+    private List<Long> accountIds;
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        // Tomcat serves plain HTTP/1.1; the client would otherwise attempt an h2c upgrade on every connection
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadGenerator [url=http://localhost:8082] [accounts=1000] " +
+                    "[initial-balance=1000.00] [concurrency=64] [duration=PT30S] [warmup=PT5S] " +
+                    "[distribution=UNIFORM|SKEWED|ZIPFIAN] [read-ratio=0.5] [duplicate-ratio=0.01]");
+            System.exit(1);
+            return;
+        }
+        boolean valid = new LoadGenerator(options).run();
+        System.exit(valid ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        System.out.printf("Load against %s: %d accounts, %d workers, %s distribution, %.0f%% reads, " +
+                        "%.1f%% duplicate transfers, %s warmup + %s%n",
+                options.url(), options.accounts(), options.concurrency(), options.distribution(),
+                options.readRatio() * 100, options.duplicateRatio() * 100, options.warmup(), options.duration());
+
+        LocalDateTime started = LocalDateTime.now();
+        accountIds = createAccounts();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long warmupEnd = System.nanoTime() + options.warmup().toNanos();
+            long end = warmupEnd + options.duration().toNanos();
+            List<Future<?>> futures = new ArrayList<>(options.concurrency());
+            for (int i = 0; i < options.concurrency(); i++) {
+                futures.add(workers.submit(() -> work(end)));
+            }
+
+            Thread.sleep(options.warmup().toMillis());
+            transferLatency.getIntervalHistogram();
+            readLatency.getIntervalHistogram();
+            long measuredFrom = System.nanoTime();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+
+            System.out.println();
+            report("POST /ledger/transfer", transferLatency.getIntervalHistogram(), seconds);
+            report("GET /accounts/{id}", readLatency.getIntervalHistogram(), seconds);
+            System.out.printf("Transfers succeeded %d, rejected %d, duplicates sent %d, errors %d%n",
+                    transfersSucceeded.sum(), transfersRejected.sum(), duplicatesSent.sum(), errors.sum());
+        }
+
+        System.out.println();
+        return checkInvariants(started);
+    }
+
+    private List<Long> createAccounts() throws IOException, InterruptedException {
+        List<BigDecimal> balances = new ArrayList<>(options.accounts());
+        for (int i = 0; i < options.accounts(); i++) {
+            balances.add(options.initialBalance());
+        }
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/accounts/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        JSON.writeValueAsString(Map.of("initialBalances", balances)))));
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("Creating accounts failed with HTTP " + response.statusCode());
+        }
+        return response.body().lines().map(Long::valueOf).toList();
+    }
+
+    private void work(long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            if (random.nextDouble() < options.readRatio()) {
+                read(accountIds.get(options.distribution().pickIndex(accountIds.size(), random)));
+            } else {
+                transfer(nextTransfer(random));
+            }
+        }
+    }
+
+    private Transfer nextTransfer(ThreadLocalRandom random) {
+        long sent = transfersSent.get();
+        if (sent > 0 && random.nextDouble() < options.duplicateRatio()) {
+            Transfer recent = recentTransfers.get((int) (random.nextLong(Math.min(sent, RECENT_TRANSFERS))));
+            if (recent != null) {
+                duplicatesSent.increment();
+                return recent;
+            }
+        }
+        long[] pair = options.distribution().pickPair(accountIds);
+        Transfer transfer = new Transfer(UUID.randomUUID().toString(), pair[0], pair[1], random.nextLong(1, 101));
+        recentTransfers.set((int) (transfersSent.getAndIncrement() % RECENT_TRANSFERS), transfer);
+        return transfer;
+    }
+
+    private void transfer(Transfer transfer) {
+        String body = "{\"transferId\":\"" + transfer.transferId() + "\",\"fromAccountId\":" + transfer.fromAccountId()
+                + ",\"toAccountId\":" + transfer.toAccountId() + ",\"amount\":" + BigDecimal.valueOf(transfer.minorUnits(), 2) + "}";
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/ledger/transfer"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            record(transferLatency, started);
+            if (response.statusCode() != 200) {
+                errors.increment();
+                unknownOutcomes.increment();
+                return;
+            }
+            if (JSON.readTree(response.body()).path("success").asBoolean()) {
+                transfersSucceeded.increment();
+                appliedTransfers.putIfAbsent(transfer.transferId(), transfer);
+            } else {
+                transfersRejected.increment();
+            }
+        } catch (IOException e) {
+            errors.increment();
+            unknownOutcomes.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void read(long accountId) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/accounts/" + accountId)).GET());
+            record(readLatency, started);
+            if (response.statusCode() != 200) {
+                errors.increment();
+            }
+        } catch (IOException e) {
+            errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean checkInvariants(LocalDateTime started) throws Exception {
+        long initialMinorUnits = options.initialBalance().movePointRight(2).longValueExact();
+        Map<Long, Long> expected = new HashMap<>();
+        for (Long accountId : accountIds) {
+            expected.put(accountId, initialMinorUnits);
+        }
+        for (Transfer transfer : appliedTransfers.values()) {
+            expected.merge(transfer.fromAccountId(), -transfer.minorUnits(), Long::sum);
+            expected.merge(transfer.toAccountId(), transfer.minorUnits(), Long::sum);
+        }
+
+        long total = 0;
+        long negative = 0;
+        long drifted = 0;
+        for (Long accountId : accountIds) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(
+                    uri("/accounts/" + accountId + "?consistency=STRICT")).GET());
+            long balance = JSON.readTree(response.body()).path("balance").decimalValue()
+                    .movePointRight(2).longValueExact();
+            total += balance;
+            if (balance < 0) {
+                negative++;
+            }
+            if (balance != expected.get(accountId)) {
+                drifted++;
+            }
+        }
+
+        long expectedTotal = initialMinorUnits * accountIds.size();
+        boolean conserved = check("Money conserved", total == expectedTotal,
+                "total " + BigDecimal.valueOf(total, 2) + ", expected " + BigDecimal.valueOf(expectedTotal, 2));
+        boolean nonNegative = check("No negative balance", negative == 0, negative + " accounts below zero");
+        boolean balanced = checkTrialBalance(started);
+        boolean exactlyOnce = true;
+        if (unknownOutcomes.sum() == 0) {
+            exactlyOnce = check("Transfers applied exactly once", drifted == 0,
+                    drifted + " accounts differ from their successful transfers");
+        } else {
+            System.out.printf("SKIP Transfers applied exactly once: %d transfers with unknown outcome%n",
+                    unknownOutcomes.sum());
+        }
+        return conserved && nonNegative && balanced && exactlyOnce;
+    }
+
+    private boolean checkTrialBalance(LocalDateTime started) throws IOException, InterruptedException {
+        // A minute of slack for clock differences between this process and the service
+        HttpResponse<String> response = send(HttpRequest.newBuilder(
+                uri("/ledger/audit/trial-balance?from=" + started.minusMinutes(1))).GET());
+        if (response.statusCode() != 200) {
+            return check("Every transfer balanced", false, "trial balance failed with HTTP " + response.statusCode());
+        }
+        JsonNode report = JSON.readTree(response.body());
+        long unbalanced = report.path("unbalancedCount").asLong();
+        boolean totalsMatch = report.path("totalDebits").decimalValue()
+                .compareTo(report.path("totalCredits").decimalValue()) == 0;
+        return check("Every transfer balanced", unbalanced == 0 && totalsMatch,
+                unbalanced + " unbalanced of " + report.path("transfers").asLong() + " transfers, debits "
+                        + report.path("totalDebits").asText() + ", credits " + report.path("totalCredits").asText());
+    }
+
+    private static boolean check(String invariant, boolean holds, String detail) {
+        System.out.printf("%s %s: %s%n", holds ? "PASS" : "FAIL", invariant, detail);
+        return holds;
+    }
+
+    private static void report(String operation, Histogram latencies, double seconds) {
+        System.out.printf("%-22s %9d ops %10.1f ops/s   p50 %7.2f  p90 %7.2f  p99 %7.2f  p99.9 %7.2f  max %8.2f ms%n",
+                operation, latencies.getTotalCount(), latencies.getTotalCount() / seconds,
+                millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                latencies.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void record(Recorder recorder, long startedNanos) {
+        long micros = (System.nanoTime() - startedNanos) / 1000;
+        recorder.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.url() + path);
+    }
+
+    private record Transfer(String transferId, long fromAccountId, long toAccountId, long minorUnits) {
+    }
+
+    private record Options(String url, int accounts, BigDecimal initialBalance, int concurrency,
+                           Duration duration, Duration warmup, AccountPicker distribution,
+                           double readRatio, double duplicateRatio) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>(Map.of(
+                    "url", "http://localhost:8082",
+                    "accounts", "1000",
+                    "initial-balance", "1000.00",
+                    "concurrency", "64",
+                    "duration", "PT30S",
+                    "warmup", "PT5S",
+                    "distribution", "UNIFORM",
+                    "read-ratio", "0.5",
+                    "duplicate-ratio", "0.01"));
+            for (String arg : args) {
+                String option = arg.startsWith("--") ? arg.substring(2) : arg;
+                int equals = option.indexOf('=');
+                if (equals < 0 || !values.containsKey(option.substring(0, equals))) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+                values.put(option.substring(0, equals), option.substring(equals + 1));
+            }
+
+            Options options = new Options(
+                    values.get("url").replaceAll("/+$", ""),
+                    Integer.parseInt(values.get("accounts")),
+                    new BigDecimal(values.get("initial-balance")),
+                    Integer.parseInt(values.get("concurrency")),
+                    Duration.parse(values.get("duration")),
+                    Duration.parse(values.get("warmup")),
+                    AccountPicker.valueOf(values.get("distribution").toUpperCase()),
+                    Double.parseDouble(values.get("read-ratio")),
+                    Double.parseDouble(values.get("duplicate-ratio")));
+            if (options.accounts() < 2 || options.concurrency() < 1
+                    || options.readRatio() < 0 || options.readRatio() > 1
+                    || options.duplicateRatio() < 0 || options.duplicateRatio() > 1) {
+                throw new IllegalArgumentException("Need at least 2 accounts and 1 worker, and ratios within [0, 1]");
+            }
+            return options;
+        }
+    }
+}
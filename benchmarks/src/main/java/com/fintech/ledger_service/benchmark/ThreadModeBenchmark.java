@@ -0,0 +1,102 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.service.LedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfer throughput when many concurrent callers contend for row locks on a few hot accounts,
+ * served either by a Tomcat-sized pool of platform threads or by one virtual thread per call.
+ * Each invocation fans out {@code callers} transfers and waits for all of them.
+ * <p>
+ * Only the caller threads differ between modes: the benchmark's own executor stands in for Tomcat's request
+ * threads, and the context runs without a web server, so {@code spring.threads.virtual.enabled} is left alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ThreadModeBenchmark {
+
+    // Tomcat's default server.tomcat.threads.max
+    private static final int PLATFORM_THREADS = 200;
+    private static final int CALLERS = 1000;
+    private static final Money INITIAL_BALANCE = Money.of("1000000000.00");
+    private static final Money AMOUNT = Money.of("0.01");
+
+    public enum ThreadMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode threadMode;
+
+    @Param({"10"})
+    public int hotAccounts;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private ExecutorService executor;
+    private List<Long> accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = LedgerBenchmarkContext.start(Map.of("spring.datasource.hikari.maximum-pool-size", 20));
+        ledgerService = context.getBean(LedgerService.class);
+        executor = threadMode == ThreadMode.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        accountIds = new ArrayList<>(hotAccounts);
+        for (int i = 0; i < hotAccounts; i++) {
+            accountIds.add(ledgerService.createAccount(INITIAL_BALANCE).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLERS)
+    public int applyContendedTransfers() throws Exception {
+        List<Future<?>> futures = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            long[] pair = AccountPicker.UNIFORM.pickPair(accountIds);
+            futures.add(executor.submit(() ->
+                    ledgerService.applyTransfer(UUID.randomUUID().toString(), pair[0], pair[1], AMOUNT)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return futures.size();
+    }
+}
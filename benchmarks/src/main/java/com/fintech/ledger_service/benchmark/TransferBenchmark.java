@@ -0,0 +1,74 @@
+package com.fintech.ledger_service.benchmark;
+
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.service.LedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link LedgerService#applyTransfer} throughput against in-memory H2,
+ * with uniform or skewed account selection across concurrent callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class TransferBenchmark {
+
+    private static final Money INITIAL_BALANCE = Money.of("1000000000.00");
+    private static final Money AMOUNT = Money.of("0.01");
+
+    @Param({"UNIFORM", "SKEWED"})
+    public AccountPicker picker;
+
+    @Param({"1000"})
+    public int accountCount;
+
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private List<Long> accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = LedgerBenchmarkContext.start();
+        ledgerService = context.getBean(LedgerService.class);
+
+        accountIds = new ArrayList<>(accountCount);
+        for (int i = 0; i < accountCount; i++) {
+            accountIds.add(ledgerService.createAccount(INITIAL_BALANCE).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferResult applyTransfer() {
+        long[] pair = picker.pickPair(accountIds);
+        return ledgerService.applyTransfer(UUID.randomUUID().toString(), pair[0], pair[1], AMOUNT);
+    }
+}
@@ -0,0 +1,24 @@
+package com.fintech.ledger_service.config;
+
+import com.fintech.ledger_service.data.ArchiveCommand;
+import com.fintech.ledger_service.data.ArchiveFormat;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.archive")
+public class ArchiveConfig {
+    /**
+     * When set, the application runs this command against {@link #file} and exits
+     */
+    private ArchiveCommand command;
+    private String file;
+    private ArchiveFormat format = ArchiveFormat.BINARY;
+    private boolean compress = true;
+    private int fetchSize = 10_000;
+    private int batchSize = 5_000;
+}
@@ -0,0 +1,15 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.audit")
+public class AuditConfig {
+    private int parallelism = 4;
+    private int maxReportedTransfers = 1000;
+}
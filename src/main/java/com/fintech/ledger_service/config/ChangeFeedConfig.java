@@ -0,0 +1,19 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.change-feed")
+public class ChangeFeedConfig {
+    private boolean enabled = false;
+    private Duration relayInterval = Duration.ofMillis(100);
+    private int relayBatchSize = 1000;
+    private Duration maxWait = Duration.ofSeconds(25);
+}
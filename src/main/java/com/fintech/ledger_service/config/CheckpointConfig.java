@@ -0,0 +1,19 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.checkpoint")
+public class CheckpointConfig {
+    private boolean enabled = true;
+    private Duration interval = Duration.ofMinutes(5);
+    private Duration safetyLag = Duration.ofMinutes(1);
+    private boolean verify = false;
+}
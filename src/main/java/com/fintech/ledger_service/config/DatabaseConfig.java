@@ -1,5 +1,6 @@
 package com.fintech.ledger_service.config;
 
+import com.fintech.ledger_service.data.TransferEngineType;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -10,6 +11,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 @ConfigurationProperties(prefix = "ledger")
 public class DatabaseConfig {
-    private boolean enableOptimisticLocking = true;
+    private boolean enableOptimisticLocking = false;
     private int maxRetries = 3;
+    private long retryBackoffMs = 5;
+    private TransferEngineType engine = TransferEngineType.LOCKING;
 }
@@ -0,0 +1,23 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.group-commit")
+public class GroupCommitConfig {
+    private boolean enabled = false;
+    private Duration window = Duration.ofMillis(2);
+    private int maxBatchSize = 64;
+    private int queueCapacity = 10_000;
+    /**
+     * How long a caller waits, beyond the window, for its batch before applying its transfer on its own
+     */
+    private Duration commitTimeout = Duration.ofSeconds(5);
+}
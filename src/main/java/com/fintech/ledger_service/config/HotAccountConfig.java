@@ -0,0 +1,20 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.hot-accounts")
+public class HotAccountConfig {
+    private boolean enabled = true;
+    private int topK = 32;
+    private double epsilon = 0.001;
+    private double delta = 0.01;
+    private Duration window = Duration.ofMinutes(1);
+}
@@ -0,0 +1,31 @@
+package com.fintech.ledger_service.config;
+
+import com.fintech.ledger_service.data.IdGeneratorType;
+import com.fintech.ledger_service.util.IdGenerator;
+import com.fintech.ledger_service.util.RandomUuidIdGenerator;
+import com.fintech.ledger_service.util.TimeOrderedIdGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.ids")
+public class IdGeneratorConfig {
+    private IdGeneratorType generator = IdGeneratorType.TIME_ORDERED;
+    /**
+     * Distinguishes instances writing to the same database; must be unique per running instance
+     */
+    private int nodeId = 0;
+
+    @Bean
+    public IdGenerator ledgerIdGenerator() {
+        return switch (generator) {
+            case TIME_ORDERED -> new TimeOrderedIdGenerator(nodeId);
+            case RANDOM_UUID -> new RandomUuidIdGenerator();
+        };
+    }
+}
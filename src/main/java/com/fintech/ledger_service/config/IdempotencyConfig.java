@@ -0,0 +1,18 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.idempotency")
+public class IdempotencyConfig {
+    private Duration ttl = Duration.ofDays(7);
+    private Duration bucketWidth = Duration.ofHours(1);
+    private Duration purgeInterval = Duration.ofMinutes(15);
+}
@@ -0,0 +1,19 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.idempotency-filter")
+public class IdempotencyFilterConfig {
+    private boolean enabled = false;
+    private long expectedInsertions = 1_000_000;
+    private double falsePositiveProbability = 0.001;
+    private Duration rotationInterval = Duration.ofHours(24);
+}
@@ -0,0 +1,20 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.journal")
+public class JournalConfig {
+    private boolean enabled = false;
+    private String directory = "data/journal";
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+    private Duration flushDelay = Duration.ZERO;
+}
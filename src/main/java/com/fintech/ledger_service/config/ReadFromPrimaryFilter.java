@@ -0,0 +1,48 @@
+package com.fintech.ledger_service.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Serves every read of a request carrying {@code X-Read-From-Primary: true} from the primary. Applies to work on
+ * the request thread; streamed response bodies are written on another thread and still read from the replica.
+ */
+public class ReadFromPrimaryFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-From-Primary";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!Boolean.parseBoolean(request.getHeader(HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> {
+                try {
+                    chain.doFilter(request, response);
+                    return null;
+                } catch (IOException | ServletException e) {
+                    throw new FilterFailure(e);
+                }
+            });
+        } catch (FilterFailure failure) {
+            if (failure.getCause() instanceof IOException e) {
+                throw e;
+            }
+            throw (ServletException) failure.getCause();
+        }
+    }
+
+    private static final class FilterFailure extends RuntimeException {
+        private FilterFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
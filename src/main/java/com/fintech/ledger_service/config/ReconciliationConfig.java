@@ -0,0 +1,18 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.reconciliation")
+public class ReconciliationConfig {
+    private boolean enabled = false;
+    private String cron = "0 0 3 * * *";
+    private int parallelism = 4;
+    private int rangeSize = 10_000;
+    private int maxReportedMismatches = 100;
+}
@@ -0,0 +1,14 @@
+package com.fintech.ledger_service.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs; left off when the application only runs a ledger archive command
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("'${ledger.archive.command:}'.isEmpty()")
+public class SchedulingConfig {
+}
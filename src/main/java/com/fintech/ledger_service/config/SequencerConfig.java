@@ -0,0 +1,19 @@
+package com.fintech.ledger_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.sequencer")
+public class SequencerConfig {
+    private int partitions = 8;
+    private int persistenceQueueCapacity = 100_000;
+    private int persistenceBatchSize = 500;
+    private long persistenceRetryBackoffMs = 1000;
+    private boolean awaitPersistence = false;
+    private long transferTimeoutMs = 5000;
+}
@@ -0,0 +1,18 @@
+package com.fintech.ledger_service.config;
+
+import com.fintech.ledger_service.data.ShardSelection;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "ledger.sharding")
+public class ShardingConfig {
+    private boolean enabled = false;
+    private int defaultShardCount = 8;
+    private int maxShardCount = 64;
+    private ShardSelection selection = ShardSelection.HASH;
+}
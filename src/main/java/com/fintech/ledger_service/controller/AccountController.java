@@ -1,8 +1,19 @@
 package com.fintech.ledger_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.ledger_service.data.ReadConsistency;
+import com.fintech.ledger_service.domain.HistoryCursor;
+import com.fintech.ledger_service.domain.HistoryPage;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TimeWindow;
+import com.fintech.ledger_service.dto.AccountHistoryResponse;
 import com.fintech.ledger_service.dto.AccountResponse;
+import com.fintech.ledger_service.dto.BulkCreateAccountsRequest;
 import com.fintech.ledger_service.dto.CreateAccountRequest;
+import com.fintech.ledger_service.dto.LedgerEntryResponse;
 import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.service.AccountProvisioningService;
+import com.fintech.ledger_service.service.AccountShardService;
 import com.fintech.ledger_service.service.LedgerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,9 +22,19 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
 
 @RestController
 @RequiredArgsConstructor
@@ -23,7 +44,12 @@ public class AccountController {
 
     private static final Logger log = LoggerFactory.getLogger(AccountController.class);
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final LedgerService ledgerService;
+    private final AccountShardService accountShardService;
+    private final AccountProvisioningService accountProvisioningService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new account", description = "Create a new account with an initial balance")
@@ -31,7 +57,7 @@ public class AccountController {
     @ApiResponse(responseCode = "400", description = "Invalid request or account already exists")
     public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody CreateAccountRequest request) {
         try {
-            Account account = ledgerService.createAccount(request.getInitialBalance());
+            Account account = ledgerService.createAccount(Money.of(request.getInitialBalance()));
             AccountResponse response = AccountResponse.fromAccount(account);
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (IllegalArgumentException e) {
@@ -40,13 +66,42 @@ public class AccountController {
         }
     }
 
+    @PostMapping(value = "/bulk", produces = NDJSON)
+    @Operation(summary = "Create accounts in bulk",
+            description = "Create one account per initial balance in a single transaction. The new account ids are " +
+                    "streamed back as newline-delimited JSON, in request order.")
+    @ApiResponse(responseCode = "201", description = "Accounts created successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid request")
+    public ResponseEntity<StreamingResponseBody> createAccounts(@Valid @RequestBody BulkCreateAccountsRequest request) {
+        LongStream ids;
+        try {
+            List<Money> initialBalances = request.getInitialBalances().stream().map(Money::of).toList();
+            ids = accountProvisioningService.createAccounts(initialBalances);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to create accounts: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> ids.forEach(id -> {
+            try {
+                outputStream.write((id + "\n").getBytes(StandardCharsets.US_ASCII));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.status(HttpStatus.CREATED).contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get account details", description = "Retrieve account balance and metadata")
+    @Operation(summary = "Get account details",
+            description = "Retrieve account balance and metadata. Served from a short-lived cache by default; " +
+                    "consistency=STRICT reads from the database, e.g. to read back one's own transfer.")
     @ApiResponse(responseCode = "200", description = "Account details retrieved successfully")
     @ApiResponse(responseCode = "404", description = "Account not found")
-    public ResponseEntity<AccountResponse> getAccount(@PathVariable Long id) {
+    public ResponseEntity<AccountResponse> getAccount(@PathVariable Long id,
+                                                      @RequestParam(defaultValue = "CACHED") ReadConsistency consistency) {
         try {
-            Account account = ledgerService.getAccount(id);
+            Account account = ledgerService.getAccount(id, consistency);
             AccountResponse response = AccountResponse.fromAccount(account);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
@@ -54,4 +109,96 @@ public class AccountController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Get account history page",
+            description = "Ledger entries of the account, newest first, paginated by an opaque keyset cursor. " +
+                    "An optional [from, to) creation-time window restricts the scan to the matching ledger partitions.")
+    @ApiResponse(responseCode = "200", description = "History page retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor, time window or page size")
+    @ApiResponse(responseCode = "404", description = "Account not found")
+    public ResponseEntity<AccountHistoryResponse> getAccountHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "" + AccountHistoryResponse.DEFAULT_PAGE_SIZE) int limit) {
+        HistoryCursor historyCursor;
+        TimeWindow window;
+        try {
+            historyCursor = cursor != null ? HistoryCursor.decode(cursor) : null;
+            window = TimeWindow.of(from, to);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid history request for account {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (limit < 1 || limit > AccountHistoryResponse.MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            HistoryPage page = ledgerService.getAccountHistoryPage(id, window, historyCursor, limit);
+            return ResponseEntity.ok(AccountHistoryResponse.fromHistoryPage(id, page));
+        } catch (IllegalArgumentException e) {
+            log.warn("Account not found: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping(value = "/{id}/history/stream", produces = NDJSON)
+    @Operation(summary = "Stream account history",
+            description = "Every ledger entry of the account in the optional [from, to) window, newest first, " +
+                    "as newline-delimited JSON")
+    @ApiResponse(responseCode = "200", description = "History streamed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid time window")
+    @ApiResponse(responseCode = "404", description = "Account not found")
+    public ResponseEntity<StreamingResponseBody> streamAccountHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        TimeWindow window;
+        try {
+            window = TimeWindow.of(from, to);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid history window for account {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            ledgerService.getAccount(id);
+        } catch (IllegalArgumentException e) {
+            log.warn("Account not found: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+
+        // The transaction and database cursor live on the async thread writing the response
+        StreamingResponseBody body = outputStream -> {
+            long count = ledgerService.streamAccountHistory(id, window, entry -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(LedgerEntryResponse.fromLedgerEntry(entry)));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Streamed {} history entries for account {}", count, id);
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @PostMapping("/{id}/shards")
+    @Operation(summary = "Shard a hot account",
+            description = "Split the account balance across balance buckets so concurrent transfers lock only one bucket")
+    @ApiResponse(responseCode = "200", description = "Account sharded successfully")
+    @ApiResponse(responseCode = "400", description = "Sharding disabled, invalid shard count, or account already sharded")
+    public ResponseEntity<AccountResponse> shardAccount(@PathVariable Long id,
+                                                        @RequestParam(required = false) Integer shardCount) {
+        try {
+            accountShardService.shardAccount(id, shardCount);
+            AccountResponse response = AccountResponse.fromAccount(ledgerService.getAccount(id));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Failed to shard account: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
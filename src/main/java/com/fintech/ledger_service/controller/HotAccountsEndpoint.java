@@ -0,0 +1,30 @@
+package com.fintech.ledger_service.controller;
+
+import com.fintech.ledger_service.domain.HotAccount;
+import com.fintech.ledger_service.service.HotAccountTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/hotaccounts}: the accounts transfers touch most, with their lock wait, to spot accounts
+ * that cause lock convoys and may need sharding
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final HotAccountTracker hotAccountTracker;
+
+    @ReadOperation
+    public List<HotAccount> hotAccounts(@Nullable Integer limit) {
+        return hotAccountTracker.getHotAccounts(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,58 @@
+package com.fintech.ledger_service.controller;
+
+import com.fintech.ledger_service.config.ArchiveConfig;
+import com.fintech.ledger_service.service.LedgerArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Runs {@code ledger.archive.command} against {@code ledger.archive.file} once the application has started, then
+ * exits with status 0 on success and 1 on failure:
+ * <pre>
+ * java -jar ledger-service.jar --spring.profiles.active=prod --spring.main.web-application-type=none \
+ *     --ledger.archive.command=export --ledger.archive.file=/backup/ledger.lar
+ * </pre>
+ * Scheduled jobs are off in this mode (see {@link com.fintech.ledger_service.config.SchedulingConfig}); in
+ * particular the balance checkpoint job must not run against a half-imported ledger.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "ledger.archive", name = "command")
+public class LedgerArchiveCommand implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerArchiveCommand.class);
+
+    private final LedgerArchiveService ledgerArchiveService;
+    private final ArchiveConfig config;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.getFile() == null) {
+            throw new IllegalStateException("ledger.archive.file is required with ledger.archive.command");
+        }
+        Path file = Path.of(config.getFile());
+        int status = 0;
+        try {
+            switch (config.getCommand()) {
+                case EXPORT -> ledgerArchiveService.export(file, config.getFormat(), config.isCompress());
+                case IMPORT -> ledgerArchiveService.importArchive(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Ledger {} of {} failed", config.getCommand(), file, e);
+            status = 1;
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -1,32 +1,57 @@
 package com.fintech.ledger_service.controller;
 
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TimeWindow;
+import com.fintech.ledger_service.domain.TrialBalanceReport;
 import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.dto.BatchTransferRequest;
+import com.fintech.ledger_service.dto.BatchTransferResponse;
+import com.fintech.ledger_service.dto.ChangeFeedResponse;
 import com.fintech.ledger_service.dto.TransferRequest;
 import com.fintech.ledger_service.dto.TransferResponse;
+import com.fintech.ledger_service.service.ChangeFeedService;
+import com.fintech.ledger_service.service.LedgerAuditService;
 import com.fintech.ledger_service.service.LedgerService;
+import com.fintech.ledger_service.service.TransferCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/ledger")
 @Tag(name = "Ledger Operations", description = "Core ledger operations for transfers")
 public class LedgerController {
 
     private static final Logger log = LoggerFactory.getLogger(LedgerController.class);
+    private static final int MAX_AUDIT_SLICES = 1024;
 
     private final LedgerService ledgerService;
+    private final TransferCoalescer transferCoalescer;
+    private final ChangeFeedService changeFeedService;
+    private final LedgerAuditService ledgerAuditService;
 
-    public LedgerController(LedgerService ledgerService) {
+    public LedgerController(LedgerService ledgerService, TransferCoalescer transferCoalescer,
+                            ChangeFeedService changeFeedService, LedgerAuditService ledgerAuditService) {
         this.ledgerService = ledgerService;
+        this.transferCoalescer = transferCoalescer;
+        this.changeFeedService = changeFeedService;
+        this.ledgerAuditService = ledgerAuditService;
     }
 
     @PostMapping("/transfer")
@@ -35,11 +60,11 @@ public class LedgerController {
     @ApiResponse(responseCode = "400", description = "Invalid transfer request")
     public ResponseEntity<TransferResponse> applyTransfer(@Valid @RequestBody TransferRequest request) {
         try {
-            TransferResult result = ledgerService.applyTransfer(
+            TransferResult result = transferCoalescer.applyTransfer(
                     request.getTransferId(),
                     request.getFromAccountId(),
                     request.getToAccountId(),
-                    request.getAmount()
+                    Money.of(request.getAmount())
             );
 
             TransferResponse response = TransferResponse.fromTransferResult(result);
@@ -53,4 +78,69 @@ public class LedgerController {
             return ResponseEntity.internalServerError().build();
         }
     }
+
+    @PostMapping("/transfers/batch")
+    @Operation(summary = "Apply a batch of transfers",
+            description = "Execute many transfers in one transaction, either all-or-nothing or independently per item")
+    @ApiResponse(responseCode = "200", description = "Batch processed (check per-item success fields for actual results)")
+    @ApiResponse(responseCode = "400", description = "Invalid batch request")
+    public ResponseEntity<BatchTransferResponse> applyTransfers(@Valid @RequestBody BatchTransferRequest request) {
+        try {
+            List<TransferResult> results = ledgerService.applyTransfers(request.getTransfers(), request.getMode());
+
+            BatchTransferResponse response = BatchTransferResponse.fromTransferResults(request.getMode(), results);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid batch transfer request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Unexpected error processing transfer batch", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Read the ledger change feed",
+            description = "Committed ledger entries of every account in feed order, after the given position. " +
+                    "With a wait, a read at the head of the feed is held open until new changes commit or the wait " +
+                    "runs out (long poll).")
+    @ApiResponse(responseCode = "200", description = "Changes read (possibly none; resume from nextPosition)")
+    @ApiResponse(responseCode = "400", description = "Change feed disabled, or invalid position, page size or wait")
+    public CompletableFuture<ResponseEntity<ChangeFeedResponse>> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + ChangeFeedResponse.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "PT0S") Duration wait) {
+        if (!changeFeedService.isEnabled() || after < 0 || limit < 1 || limit > ChangeFeedResponse.MAX_PAGE_SIZE
+                || wait.isNegative()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return changeFeedService.poll(after, limit, wait)
+                .thenApply(changes -> ResponseEntity.ok(ChangeFeedResponse.fromLedgerChanges(after, changes)));
+    }
+
+    @GetMapping("/audit/trial-balance")
+    @Operation(summary = "Trial balance",
+            description = "Check that the debits and credits of every transfer with entries in the optional " +
+                    "[from, to) window balance, and total them. The window is audited in parallel time slices.")
+    @ApiResponse(responseCode = "200", description = "Trial balance computed (see unbalanced for any failures)")
+    @ApiResponse(responseCode = "400", description = "Invalid time window or slice count")
+    public ResponseEntity<TrialBalanceReport> getTrialBalance(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer slices) {
+        TimeWindow window;
+        try {
+            window = TimeWindow.of(from, to);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid trial balance window: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (slices != null && (slices < 1 || slices > MAX_AUDIT_SLICES)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(slices != null
+                ? ledgerAuditService.trialBalance(window, slices)
+                : ledgerAuditService.trialBalance(window));
+    }
 }
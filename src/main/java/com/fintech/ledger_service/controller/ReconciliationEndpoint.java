@@ -0,0 +1,34 @@
+package com.fintech.ledger_service.controller;
+
+import com.fintech.ledger_service.domain.ReconciliationReport;
+import com.fintech.ledger_service.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/reconciliation}: the report of the last balance reconciliation run; a POST runs one now,
+ * or resumes the interrupted one, and answers with no content if a run is already in progress
+ */
+@Component
+@Endpoint(id = "reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationEndpoint {
+
+    private final ReconciliationService reconciliationService;
+
+    @ReadOperation
+    @Nullable
+    public ReconciliationReport lastReport() {
+        return reconciliationService.getLastReport().orElse(null);
+    }
+
+    @WriteOperation
+    @Nullable
+    public ReconciliationReport reconcile() {
+        return reconciliationService.reconcile().orElse(null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.fintech.ledger_service.data;
+
+public enum ArchiveCommand {
+    EXPORT,
+    IMPORT
+}
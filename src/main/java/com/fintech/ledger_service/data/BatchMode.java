@@ -0,0 +1,6 @@
+package com.fintech.ledger_service.data;
+
+public enum BatchMode {
+    ALL_OR_NOTHING,
+    INDEPENDENT
+}
@@ -0,0 +1,8 @@
+package com.fintech.ledger_service.data;
+
+public enum ReadConsistency {
+    // May be served from the account cache, up to ledger.account-cache.ttl stale for writes made elsewhere
+    CACHED,
+    // Always read from the database, e.g. to read back one's own writes
+    STRICT
+}
@@ -0,0 +1,17 @@
+package com.fintech.ledger_service.domain;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a ledger export or import
+ */
+public record ArchiveSummary(Path file, long accounts, long entries, long bytes, long elapsedMs) {
+
+    public double megabytesPerSecond() {
+        return bytes / 1_048_576.0 / Math.max(elapsedMs / 1000.0, 1e-3);
+    }
+
+    public double recordsPerSecond() {
+        return (accounts + entries) / Math.max(elapsedMs / 1000.0, 1e-3);
+    }
+}
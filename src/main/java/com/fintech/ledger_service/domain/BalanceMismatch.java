@@ -0,0 +1,9 @@
+package com.fintech.ledger_service.domain;
+
+/**
+ * An account whose stored balance (including its shard buckets) disagrees with the sum of its ledger entries
+ *
+ * @param storedBalance null for ledger entries of an account that does not exist
+ */
+public record BalanceMismatch(long accountId, Money storedBalance, Money ledgerBalance) {
+}
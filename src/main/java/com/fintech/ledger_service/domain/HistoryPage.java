@@ -0,0 +1,11 @@
+package com.fintech.ledger_service.domain;
+
+import com.fintech.ledger_service.entity.LedgerEntry;
+
+import java.util.List;
+
+/**
+ * One page of an account's history, newest first; {@code nextCursor} is null on the last page
+ */
+public record HistoryPage(List<LedgerEntry> entries, HistoryCursor nextCursor) {
+}
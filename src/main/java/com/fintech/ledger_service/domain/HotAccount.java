@@ -0,0 +1,11 @@
+package com.fintech.ledger_service.domain;
+
+/**
+ * Estimated transfer activity of one account over the hot-account tracking window
+ *
+ * @param accesses           transfers touching the account
+ * @param totalLockWaitMs    time those transfers spent acquiring row locks
+ * @param averageLockWaitMs  lock wait per transfer
+ */
+public record HotAccount(long accountId, long accesses, double totalLockWaitMs, double averageLockWaitMs) {
+}
@@ -0,0 +1,13 @@
+package com.fintech.ledger_service.domain;
+
+import java.time.Instant;
+
+/**
+ * One accepted transfer in the write-ahead journal
+ *
+ * @param sequence position in the journal, increasing across segments and restarts
+ * @param timestamp when the transfer was accepted, to the millisecond
+ */
+public record JournalRecord(long sequence, Instant timestamp, String transferId, long fromAccountId,
+                            long toAccountId, Money amount) {
+}
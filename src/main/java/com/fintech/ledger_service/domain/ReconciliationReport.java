@@ -0,0 +1,16 @@
+package com.fintech.ledger_service.domain;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of a reconciliation run. Counts cover the whole run, including any part done before it was resumed;
+ * {@code mismatches} lists at most {@code ledger.reconciliation.max-reported-mismatches} of those found by the
+ * last attempt, every one of them is also logged.
+ *
+ * @param accountsPerSecond throughput of the last attempt
+ */
+public record ReconciliationReport(Long runId, LocalDateTime startedAt, LocalDateTime finishedAt,
+                                   long accountsChecked, long mismatchCount, List<BalanceMismatch> mismatches,
+                                   double accountsPerSecond) {
+}
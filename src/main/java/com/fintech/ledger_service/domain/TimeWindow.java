@@ -0,0 +1,28 @@
+package com.fintech.ledger_service.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Half-open {@code [from, to)} range of entry creation times. Bounded windows let PostgreSQL prune
+ * {@code ledger_entries} partitions; open ends fall back to fixed sentinels so queries keep one shape.
+ */
+public record TimeWindow(LocalDateTime from, LocalDateTime to) {
+
+    public static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    public static final TimeWindow ALL = new TimeWindow(BEGINNING, END);
+
+    public TimeWindow {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Time window bounds cannot be null");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Time window start must be before its end");
+        }
+    }
+
+    public static TimeWindow of(LocalDateTime from, LocalDateTime to) {
+        return new TimeWindow(from != null ? from : BEGINNING, to != null ? to : END);
+    }
+}
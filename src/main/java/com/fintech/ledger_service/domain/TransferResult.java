@@ -3,7 +3,6 @@ package com.fintech.ledger_service.domain;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -12,21 +11,31 @@ public class TransferResult {
     private final String transferId;
     private final boolean success;
     private final String message;
-    private final BigDecimal fromBalanceAfter;
-    private final BigDecimal toBalanceAfter;
+    private final Money fromBalanceAfter;
+    private final Money toBalanceAfter;
     private final LocalDateTime timestamp;
+    /**
+     * Whether this is the result of an earlier application of the same transfer id
+     */
+    private final boolean replay;
 
     private TransferResult(String transferId, boolean success, String message,
-                           BigDecimal fromBalanceAfter, BigDecimal toBalanceAfter) {
+                           Money fromBalanceAfter, Money toBalanceAfter) {
+        this(transferId, success, message, fromBalanceAfter, toBalanceAfter, LocalDateTime.now(), false);
+    }
+
+    private TransferResult(String transferId, boolean success, String message,
+                           Money fromBalanceAfter, Money toBalanceAfter, LocalDateTime timestamp, boolean replay) {
         this.transferId = transferId;
         this.success = success;
         this.message = message;
         this.fromBalanceAfter = fromBalanceAfter;
         this.toBalanceAfter = toBalanceAfter;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = timestamp;
+        this.replay = replay;
     }
 
-    public static TransferResult success(String transferId, BigDecimal fromBalance, BigDecimal toBalance) {
+    public static TransferResult success(String transferId, Money fromBalance, Money toBalance) {
         return new TransferResult(transferId, true, "Transfer completed successfully", fromBalance, toBalance);
     }
 
@@ -34,8 +43,18 @@ public class TransferResult {
         return new TransferResult(transferId, false, message, null, null);
     }
 
-    public static TransferResult alreadyProcessed(String transferId, BigDecimal fromBalance, BigDecimal toBalance) {
-        return new TransferResult(transferId, true, "Transfer already processed", fromBalance, toBalance);
+    public static TransferResult alreadyProcessed(String transferId, Money fromBalance, Money toBalance) {
+        return new TransferResult(transferId, true, "Transfer already processed", fromBalance, toBalance,
+                LocalDateTime.now(), true);
+    }
+
+    /**
+     * Replay of a stored result: the balances and timestamp are those of the original transfer
+     */
+    public static TransferResult alreadyProcessed(String transferId, Money fromBalance, Money toBalance,
+                                                  LocalDateTime processedAt) {
+        return new TransferResult(transferId, true, "Transfer already processed", fromBalance, toBalance,
+                processedAt, true);
     }
 }
 
@@ -0,0 +1,19 @@
+package com.fintech.ledger_service.domain;
+
+import java.util.List;
+
+/**
+ * Trial balance of the ledger entries created in a time window.
+ *
+ * @param openingBalances  net amount of account opening entries, which have no counterpart by design
+ * @param unbalancedCount  every unbalanced transfer found; {@code unbalanced} lists at most
+ *                         {@code ledger.audit.max-reported-transfers} of them per time slice
+ */
+public record TrialBalanceReport(TimeWindow window, int slices, long entries, long transfers,
+                                 Money totalDebits, Money totalCredits, Money openingBalances,
+                                 long unbalancedCount, List<UnbalancedTransfer> unbalanced) {
+
+    public boolean isBalanced() {
+        return unbalancedCount == 0 && totalDebits.equals(totalCredits);
+    }
+}
@@ -0,0 +1,7 @@
+package com.fintech.ledger_service.domain;
+
+/**
+ * A transfer whose debit and credit entries do not add up, with their magnitudes
+ */
+public record UnbalancedTransfer(String transferId, Money debits, Money credits) {
+}
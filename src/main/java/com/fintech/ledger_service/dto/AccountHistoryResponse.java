@@ -0,0 +1,35 @@
+package com.fintech.ledger_service.dto;
+
+import com.fintech.ledger_service.domain.HistoryPage;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountHistoryResponse {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private Long accountId;
+    private List<LedgerEntryResponse> entries;
+    private String nextCursor;
+
+    public AccountHistoryResponse(Long accountId, List<LedgerEntryResponse> entries, String nextCursor) {
+        this.accountId = accountId;
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    public static AccountHistoryResponse fromHistoryPage(Long accountId, HistoryPage page) {
+        return new AccountHistoryResponse(
+                accountId,
+                page.entries().stream().map(LedgerEntryResponse::fromLedgerEntry).toList(),
+                page.nextCursor() != null ? page.nextCursor().encode() : null
+        );
+    }
+}
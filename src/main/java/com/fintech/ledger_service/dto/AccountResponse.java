@@ -16,14 +16,16 @@ public class AccountResponse {
     private Long id;
     private BigDecimal balance;
     private Long version;
+    private int shardCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    public AccountResponse(Long id, BigDecimal balance, Long version,
+    public AccountResponse(Long id, BigDecimal balance, Long version, int shardCount,
                            LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.balance = balance;
         this.version = version;
+        this.shardCount = shardCount;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -31,8 +33,9 @@ public class AccountResponse {
     public static AccountResponse fromAccount(Account account) {
         return new AccountResponse(
                 account.getId(),
-                account.getBalance(),
+                account.getBalance().toBigDecimal(),
                 account.getVersion(),
+                account.getShardCount(),
                 account.getCreatedAt(),
                 account.getUpdatedAt()
         );
@@ -0,0 +1,32 @@
+package com.fintech.ledger_service.dto;
+
+import com.fintech.ledger_service.data.BatchMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchTransferRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotNull(message = "Batch mode is required")
+    private BatchMode mode = BatchMode.INDEPENDENT;
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch may contain at most " + MAX_BATCH_SIZE + " transfers")
+    private List<@Valid @NotNull TransferRequest> transfers;
+
+    public BatchTransferRequest(BatchMode mode, List<TransferRequest> transfers) {
+        this.mode = mode;
+        this.transfers = transfers;
+    }
+}
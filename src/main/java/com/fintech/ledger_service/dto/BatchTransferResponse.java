@@ -0,0 +1,36 @@
+package com.fintech.ledger_service.dto;
+
+import com.fintech.ledger_service.data.BatchMode;
+import com.fintech.ledger_service.domain.TransferResult;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchTransferResponse {
+    private BatchMode mode;
+    private int successCount;
+    private int failureCount;
+    private List<TransferResponse> results;
+
+    public BatchTransferResponse(BatchMode mode, int successCount, int failureCount, List<TransferResponse> results) {
+        this.mode = mode;
+        this.successCount = successCount;
+        this.failureCount = failureCount;
+        this.results = results;
+    }
+
+    public static BatchTransferResponse fromTransferResults(BatchMode mode, List<TransferResult> results) {
+        int successCount = (int) results.stream().filter(TransferResult::isSuccess).count();
+        return new BatchTransferResponse(
+                mode,
+                successCount,
+                results.size() - successCount,
+                results.stream().map(TransferResponse::fromTransferResult).toList()
+        );
+    }
+}
@@ -0,0 +1,29 @@
+package com.fintech.ledger_service.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BulkCreateAccountsRequest {
+
+    public static final int MAX_ACCOUNTS = 100_000;
+
+    @NotEmpty(message = "At least one account is required")
+    @Size(max = MAX_ACCOUNTS, message = "At most " + MAX_ACCOUNTS + " accounts can be created at once")
+    private List<@NotNull @DecimalMin(value = "0.0", inclusive = true,
+            message = "Initial balance must be non-negative") BigDecimal> initialBalances;
+
+    public BulkCreateAccountsRequest(List<BigDecimal> initialBalances) {
+        this.initialBalances = initialBalances;
+    }
+}
@@ -0,0 +1,35 @@
+package com.fintech.ledger_service.dto;
+
+import com.fintech.ledger_service.entity.LedgerChange;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChangeFeedResponse {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 5000;
+
+    private List<LedgerChangeResponse> changes;
+    /**
+     * Position to read after next time; the requested position again when nothing was returned
+     */
+    private long nextPosition;
+
+    public ChangeFeedResponse(List<LedgerChangeResponse> changes, long nextPosition) {
+        this.changes = changes;
+        this.nextPosition = nextPosition;
+    }
+
+    public static ChangeFeedResponse fromLedgerChanges(long after, List<LedgerChange> changes) {
+        return new ChangeFeedResponse(
+                changes.stream().map(LedgerChangeResponse::fromLedgerChange).toList(),
+                changes.isEmpty() ? after : changes.getLast().getPosition()
+        );
+    }
+}
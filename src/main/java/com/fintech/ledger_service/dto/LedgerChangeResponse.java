@@ -0,0 +1,47 @@
+package com.fintech.ledger_service.dto;
+
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.entity.LedgerChange;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerChangeResponse {
+
+    private long position;
+    private String entryId;
+    private String transferId;
+    private Long accountId;
+    private BigDecimal amount;
+    private EntryType type;
+    private LocalDateTime createdAt;
+
+    public LedgerChangeResponse(long position, String entryId, String transferId, Long accountId,
+                                BigDecimal amount, EntryType type, LocalDateTime createdAt) {
+        this.position = position;
+        this.entryId = entryId;
+        this.transferId = transferId;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.type = type;
+        this.createdAt = createdAt;
+    }
+
+    public static LedgerChangeResponse fromLedgerChange(LedgerChange change) {
+        return new LedgerChangeResponse(
+                change.getPosition(),
+                change.getEntryId(),
+                change.getTransferId(),
+                change.getAccountId(),
+                change.getAmount().toBigDecimal(),
+                change.getType(),
+                change.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.fintech.ledger_service.dto;
+
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class LedgerEntryResponse {
+
+    private String id;
+    private String transferId;
+    private Long accountId;
+    private BigDecimal amount;
+    private EntryType type;
+    private LocalDateTime createdAt;
+
+    public LedgerEntryResponse(String id, String transferId, Long accountId, BigDecimal amount,
+                               EntryType type, LocalDateTime createdAt) {
+        this.id = id;
+        this.transferId = transferId;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.type = type;
+        this.createdAt = createdAt;
+    }
+
+    public static LedgerEntryResponse fromLedgerEntry(LedgerEntry entry) {
+        return new LedgerEntryResponse(
+                entry.getId(),
+                entry.getTransferId(),
+                entry.getAccountId(),
+                entry.getAmount().toBigDecimal(),
+                entry.getType(),
+                entry.getCreatedAt()
+        );
+    }
+}
@@ -34,8 +34,8 @@ public class TransferResponse {
                 result.getTransferId(),
                 result.isSuccess(),
                 result.getMessage(),
-                result.getFromBalanceAfter(),
-                result.getToBalanceAfter(),
+                result.getFromBalanceAfter() != null ? result.getFromBalanceAfter().toBigDecimal() : null,
+                result.getToBalanceAfter() != null ? result.getToBalanceAfter().toBigDecimal() : null,
                 result.getTimestamp()
         );
     }
@@ -1,14 +1,13 @@
 package com.fintech.ledger_service.entity;
 
+import com.fintech.ledger_service.domain.Money;
 import com.fintech.ledger_service.exception.InsufficientFundsException;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -18,19 +17,34 @@ import java.time.LocalDateTime;
 @Table(name = "accounts")
 public class Account {
 
+    public static final String ID_SEQUENCE = "account_id_seq";
+    /**
+     * Ids handed out per sequence call (pooled-lo): a call returning {@code n} reserves {@code [n, n + ID_BLOCK_SIZE)}
+     */
+    public static final int ID_BLOCK_SIZE = 1000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_BLOCK_SIZE)
     private Long id;
 
+    /**
+     * Never negative: {@link #debit} rejects amounts above the balance
+     */
     @NotNull
-    @DecimalMin(value = "0.0")
     @Column(precision = 19, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
 
     @Version
     @Column(nullable = false)
     private Long version = 1L;
 
+    /**
+     * Number of balance buckets in {@code account_shards}; zero for a regular single-row account
+     */
+    @Column(name = "shard_count", nullable = false)
+    private int shardCount = 0;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -42,33 +56,37 @@ public class Account {
         this.id = id;
     }
 
-    public Account(BigDecimal balance) {
+    public Account(Money balance) {
         this.balance = balance;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
 
-    public Account(Long id, BigDecimal balance) {
+    public Account(Long id, Money balance) {
         this.id = id;
         this.balance = balance;
     }
 
-    public void debit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void debit(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Debit amount must be positive");
         }
-        if (this.balance.compareTo(amount) < 0) {
+        if (this.balance.isLessThan(amount)) {
             throw new InsufficientFundsException("Insufficient funds. Current balance: " + this.balance + ", requested: " + amount);
         }
-        this.balance = this.balance.subtract(amount);
+        this.balance = this.balance.minus(amount);
         this.updatedAt = LocalDateTime.now();
     }
 
-    public void credit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void credit(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("Credit amount must be positive");
         }
-        this.balance = this.balance.add(amount);
+        this.balance = this.balance.plus(amount);
         this.updatedAt = LocalDateTime.now();
     }
-}
\ No newline at end of file
+
+    public boolean isSharded() {
+        return shardCount > 0;
+    }
+}
@@ -0,0 +1,76 @@
+package com.fintech.ledger_service.entity;
+
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.exception.InsufficientFundsException;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One balance bucket of a sharded {@link Account}. The account's balance is the sum of its own
+ * balance column and all of its shards, so transfers only need to lock the bucket they touch.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "account_shards",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_shard", columnNames = {"account_id", "shard_index"}))
+public class AccountShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    /**
+     * Never negative: {@link #debit} rejects amounts above the balance
+     */
+    @NotNull
+    @Column(precision = 19, scale = 2)
+    private Money balance;
+
+    @Version
+    @Column(nullable = false)
+    private Long version = 1L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public AccountShard(Long accountId, int shardIndex, Money balance) {
+        this.accountId = accountId;
+        this.shardIndex = shardIndex;
+        this.balance = balance;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void debit(Money amount) {
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Debit amount must be positive");
+        }
+        if (this.balance.isLessThan(amount)) {
+            throw new InsufficientFundsException("Insufficient funds in shard " + shardIndex + ". Current balance: "
+                    + this.balance + ", requested: " + amount);
+        }
+        this.balance = this.balance.minus(amount);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void credit(Money amount) {
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Credit amount must be positive");
+        }
+        this.balance = this.balance.plus(amount);
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,44 @@
+package com.fintech.ledger_service.entity;
+
+import com.fintech.ledger_service.domain.Money;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger-derived balance of an account over every entry created at or before {@code checkpointAt}.
+ * The current ledger balance is this balance plus the entries created after it.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "balance_checkpoints")
+public class BalanceCheckpoint {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @NotNull
+    @Column(precision = 19, scale = 2)
+    private Money balance;
+
+    @NotNull
+    @Column(name = "checkpoint_at", nullable = false)
+    private LocalDateTime checkpointAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public BalanceCheckpoint(Long accountId, Money balance, LocalDateTime checkpointAt) {
+        this.accountId = accountId;
+        this.balance = balance;
+        this.checkpointAt = checkpointAt;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,48 @@
+package com.fintech.ledger_service.entity;
+
+import com.fintech.ledger_service.domain.Money;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency record for a transfer id. The row is claimed before the transfer is applied and
+ * completed with the transfer's result in the same transaction, so a retry is answered from here.
+ * Rows expire in bulk by {@code expiryBucket}.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_expiry_bucket", columnList = "expiryBucket"))
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "transfer_id")
+    private String transferId;
+
+    @Column(name = "from_balance_after", precision = 19, scale = 2)
+    private Money fromBalanceAfter;
+
+    @Column(name = "to_balance_after", precision = 19, scale = 2)
+    private Money toBalanceAfter;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expiry_bucket", nullable = false)
+    private long expiryBucket;
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
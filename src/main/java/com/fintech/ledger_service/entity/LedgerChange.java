@@ -0,0 +1,73 @@
+package com.fintech.ledger_service.entity;
+
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change feed outbox row: a copy of one ledger entry, written in the entry's own transaction. Its
+ * {@code position} in the feed is assigned after commit by the change feed relay, so positions follow
+ * commit order; it stays null until then.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "ledger_changes",
+        indexes = @Index(name = "idx_ledger_changes_position", columnList = "feed_position", unique = true))
+public class LedgerChange {
+
+    public static final String ID_SEQUENCE = "ledger_change_id_seq";
+    /**
+     * Ids handed out per sequence call (pooled-lo). Not an identity column, so the rows are batch-inserted
+     * alongside the ledger entries they copy.
+     */
+    public static final int ID_BLOCK_SIZE = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_BLOCK_SIZE)
+    private Long id;
+
+    @Column(name = "feed_position")
+    private Long position;
+
+    @NotNull
+    @Column(name = "entry_id")
+    private String entryId;
+
+    @NotNull
+    @Column(name = "transfer_id")
+    private String transferId;
+
+    @NotNull
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @NotNull
+    @Column(precision = 19, scale = 2)
+    private Money amount;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private EntryType type;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public LedgerChange(LedgerEntry entry) {
+        this.entryId = entry.getId();
+        this.transferId = entry.getTransferId();
+        this.accountId = entry.getAccountId();
+        this.amount = entry.getAmount();
+        this.type = entry.getType();
+        this.createdAt = entry.getCreatedAt();
+    }
+}
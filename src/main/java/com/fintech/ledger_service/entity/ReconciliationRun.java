@@ -0,0 +1,62 @@
+package com.fintech.ledger_service.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one reconciliation of stored account balances against the ledger over account ids
+ * {@code [fromAccountId, upToAccountId)}. Every account below {@code nextAccountId} has been checked and
+ * counted, so an unfinished run resumes from there.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "reconciliation_runs")
+public class ReconciliationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "from_account_id", nullable = false)
+    private Long fromAccountId;
+
+    @NotNull
+    @Column(name = "up_to_account_id", nullable = false)
+    private Long upToAccountId;
+
+    @NotNull
+    @Column(name = "next_account_id", nullable = false)
+    private Long nextAccountId;
+
+    @Column(name = "accounts_checked", nullable = false)
+    private long accountsChecked;
+
+    @Column(name = "mismatches", nullable = false)
+    private long mismatches;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public ReconciliationRun(Long fromAccountId, Long upToAccountId) {
+        this.fromAccountId = fromAccountId;
+        this.upToAccountId = upToAccountId;
+        this.nextAccountId = fromAccountId;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.fintech.ledger_service.exception;
+
+/**
+ * The shard bucket locked for a debit no longer covers it. The transaction must be rolled back to release that
+ * lock before all buckets are locked in shard order, since sweeping while holding it can deadlock.
+ */
+public class ShardSweepRequiredException extends RuntimeException {
+    public ShardSweepRequiredException(String message) {
+        super(message);
+    }
+}
@@ -1,13 +1,17 @@
 package com.fintech.ledger_service.repository;
 
+import com.fintech.ledger_service.domain.Money;
 import com.fintech.ledger_service.entity.Account;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +37,29 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByIdWithLock(@Param("accountId") String accountId);
 
     boolean existsById(Long id);
+
+    /**
+     * Apply a net balance change without loading the entity (used by the sequencer persistence stage)
+     */
+    @Modifying
+    @Query("UPDATE Account a SET a.balance = a.balance + :delta, a.version = a.version + 1, a.updatedAt = :updatedAt WHERE a.id = :id")
+    int applyBalanceDelta(@Param("id") Long id, @Param("delta") Money delta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Unlocked lookup of which of the given accounts are sharded, as (id, shardCount) pairs
+     */
+    @Query("SELECT a.id, a.shardCount FROM Account a WHERE a.id IN :ids AND a.shardCount > 0")
+    List<Object[]> findShardCounts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Stored balances of the accounts with ids in {@code [from, to)} as (id, balance) rows
+     */
+    @Query("SELECT a.id, a.balance FROM Account a WHERE a.id >= :from AND a.id < :to")
+    List<Object[]> findBalancesInRange(@Param("from") long from, @Param("to") long to);
+
+    @Query("SELECT MIN(a.id) FROM Account a")
+    Long findMinId();
+
+    @Query("SELECT MAX(a.id) FROM Account a")
+    Long findMaxId();
 }
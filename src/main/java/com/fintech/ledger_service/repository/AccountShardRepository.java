@@ -0,0 +1,48 @@
+package com.fintech.ledger_service.repository;
+
+import com.fintech.ledger_service.entity.AccountShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountShardRepository extends JpaRepository<AccountShard, Long> {
+
+    /**
+     * Lock a single balance bucket of a sharded account
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountShard s WHERE s.accountId = :accountId AND s.shardIndex = :shardIndex")
+    Optional<AccountShard> findShardWithLock(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex);
+
+    /**
+     * Lock every bucket of a sharded account in shard order (multi-bucket sweep)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountShard s WHERE s.accountId = :accountId ORDER BY s.shardIndex")
+    List<AccountShard> findAllByAccountIdWithLock(@Param("accountId") Long accountId);
+
+    /**
+     * Unlocked snapshot of bucket balances as (shardIndex, balance) pairs, used to pick a debit bucket.
+     * Scalar rows keep the shards out of the persistence context so a later lock reads fresh state.
+     */
+    @Query("SELECT s.shardIndex, s.balance FROM AccountShard s WHERE s.accountId = :accountId ORDER BY s.shardIndex")
+    List<Object[]> findShardBalances(@Param("accountId") Long accountId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountShard s WHERE s.accountId = :accountId")
+    BigDecimal sumBalanceByAccountId(@Param("accountId") Long accountId);
+
+    /**
+     * Total bucket balance of every sharded account with id in {@code [from, to)} as (accountId, balance) rows
+     */
+    @Query("SELECT s.accountId, SUM(s.balance) FROM AccountShard s " +
+            "WHERE s.accountId >= :from AND s.accountId < :to GROUP BY s.accountId")
+    List<Object[]> sumBalancesInRange(@Param("from") long from, @Param("to") long to);
+}
@@ -0,0 +1,18 @@
+package com.fintech.ledger_service.repository;
+
+import com.fintech.ledger_service.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, Long> {
+
+    /**
+     * Oldest checkpoint boundary; every account with entries before it has been checkpointed
+     */
+    @Query("SELECT MIN(c.checkpointAt) FROM BalanceCheckpoint c")
+    LocalDateTime findOldestCheckpointAt();
+}
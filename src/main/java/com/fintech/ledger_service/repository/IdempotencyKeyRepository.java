@@ -0,0 +1,34 @@
+package com.fintech.ledger_service.repository;
+
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.fromBalanceAfter = :fromBalanceAfter, k.toBalanceAfter = :toBalanceAfter, " +
+            "k.completedAt = :completedAt WHERE k.transferId = :transferId")
+    int complete(@Param("transferId") String transferId,
+                 @Param("fromBalanceAfter") Money fromBalanceAfter,
+                 @Param("toBalanceAfter") Money toBalanceAfter,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.transferId = :transferId")
+    int release(@Param("transferId") String transferId);
+
+    @Query("SELECT MIN(k.expiryBucket) FROM IdempotencyKey k")
+    Long findOldestExpiryBucket();
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiryBucket = :expiryBucket")
+    int deleteByExpiryBucket(@Param("expiryBucket") long expiryBucket);
+}
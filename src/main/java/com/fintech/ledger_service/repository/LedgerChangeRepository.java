@@ -0,0 +1,29 @@
+package com.fintech.ledger_service.repository;
+
+import com.fintech.ledger_service.entity.LedgerChange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerChangeRepository extends JpaRepository<LedgerChange, Long> {
+
+    /**
+     * Committed changes still waiting for a feed position, oldest first, locked against a concurrent relay
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM LedgerChange c WHERE c.position IS NULL ORDER BY c.id")
+    List<LedgerChange> findUnsequencedWithLock(Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.position), 0) FROM LedgerChange c")
+    long findLastPosition();
+
+    @Query("SELECT c FROM LedgerChange c WHERE c.position > :after ORDER BY c.position")
+    List<LedgerChange> findAfter(@Param("after") long after, Limit limit);
+}
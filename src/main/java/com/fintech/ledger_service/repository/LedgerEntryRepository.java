@@ -2,26 +2,146 @@ package com.fintech.ledger_service.repository;
 
 import com.fintech.ledger_service.data.EntryType;
 import com.fintech.ledger_service.entity.LedgerEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * On PostgreSQL {@code ledger_entries} is range-partitioned by {@code created_at}; queries that bound
+ * {@code createdAt} only touch the partitions overlapping that range.
+ */
 @Repository
 public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
 
     List<LedgerEntry> findByAccountIdOrderByCreatedAtDesc(Long accountId);
 
+    /**
+     * First page of an account's history within {@code [from, to)}, newest first
+     */
+    @Query("SELECT le FROM LedgerEntry le WHERE le.accountId = :accountId " +
+            "AND le.createdAt >= :from AND le.createdAt < :to " +
+            "ORDER BY le.createdAt DESC, le.id DESC")
+    List<LedgerEntry> findHistoryPage(@Param("accountId") Long accountId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      Limit limit);
+
+    /**
+     * Keyset page of an account's history within {@code [from, to)}: entries strictly older than
+     * {@code (createdAt, id)}, newest first
+     */
+    @Query("SELECT le FROM LedgerEntry le WHERE le.accountId = :accountId " +
+            "AND le.createdAt >= :from AND le.createdAt < :to " +
+            "AND (le.createdAt < :createdAt OR (le.createdAt = :createdAt AND le.id < :id)) " +
+            "ORDER BY le.createdAt DESC, le.id DESC")
+    List<LedgerEntry> findHistoryPageBefore(@Param("accountId") Long accountId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") String id,
+                                            Limit limit);
+
+    /**
+     * History of an account within {@code [from, to)}, newest first, fetched through a server-side cursor.
+     * Callers must consume it inside a transaction and detach entries as they go.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT le FROM LedgerEntry le WHERE le.accountId = :accountId " +
+            "AND le.createdAt >= :from AND le.createdAt < :to " +
+            "ORDER BY le.createdAt DESC, le.id DESC")
+    Stream<LedgerEntry> streamHistory(@Param("accountId") Long accountId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
     List<LedgerEntry> findByTransferIdOrderByCreatedAt(String transferId);
 
-    @Query("SELECT COALESCE(SUM(CASE WHEN le.type = 'CREDIT' THEN le.amount ELSE -le.amount END), 0) FROM LedgerEntry le WHERE le.accountId = :accountId")
+    /**
+     * (transferId, type, amount) of every entry created in {@code [from, to)}, ordered so the entries of a
+     * transfer are adjacent, fetched through a server-side cursor inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT le.transferId, le.type, le.amount FROM LedgerEntry le " +
+            "WHERE le.createdAt >= :from AND le.createdAt < :to ORDER BY le.transferId")
+    Stream<Object[]> streamTransferAmounts(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * (earliest, latest) creation time of the entries in {@code [from, to)}; both null when there are none
+     */
+    @Query("SELECT MIN(le.createdAt), MAX(le.createdAt) FROM LedgerEntry le " +
+            "WHERE le.createdAt >= :from AND le.createdAt < :to")
+    List<Object[]> findCreatedAtRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Full ledger-derived balance of an account.
+     * Debits are stored negated by applyTransfer but positive by processTransfer, so magnitudes are used.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN le.type = 'CREDIT' THEN ABS(le.amount) ELSE -ABS(le.amount) END), 0) " +
+            "FROM LedgerEntry le WHERE le.accountId = :accountId")
     BigDecimal calculateAccountBalance(@Param("accountId") Long accountId);
 
+    /**
+     * Net amount of an account's entries created in {@code (after, upTo]}
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN le.type = 'CREDIT' THEN ABS(le.amount) ELSE -ABS(le.amount) END), 0) " +
+            "FROM LedgerEntry le WHERE le.accountId = :accountId AND le.createdAt > :after AND le.createdAt <= :upTo")
+    BigDecimal sumAccountEntriesBetween(@Param("accountId") Long accountId,
+                                        @Param("after") LocalDateTime after,
+                                        @Param("upTo") LocalDateTime upTo);
+
+    /**
+     * Net amount of an account's entries created after {@code after}
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN le.type = 'CREDIT' THEN ABS(le.amount) ELSE -ABS(le.amount) END), 0) " +
+            "FROM LedgerEntry le WHERE le.accountId = :accountId AND le.createdAt > :after")
+    BigDecimal sumAccountEntriesAfter(@Param("accountId") Long accountId, @Param("after") LocalDateTime after);
+
+    @Query("SELECT DISTINCT le.accountId FROM LedgerEntry le WHERE le.createdAt > :after AND le.createdAt <= :upTo")
+    List<Long> findAccountIdsWithEntriesBetween(@Param("after") LocalDateTime after, @Param("upTo") LocalDateTime upTo);
+
     @Query("SELECT COALESCE(SUM(le.amount), 0) FROM LedgerEntry le WHERE le.transferId = :transferId AND le.type = :type")
     BigDecimal sumAmountByTransferAndType(@Param("transferId") String transferId, @Param("type") EntryType type);
 
     boolean existsByTransferId(String transferId);
+
+    @Query("SELECT DISTINCT le.transferId FROM LedgerEntry le WHERE le.createdAt >= :since")
+    Stream<String> streamTransferIdsSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Ledger-derived balance of every account as (accountId, balance) rows.
+     * Debits are stored negated by applyTransfer but positive by processTransfer, so magnitudes are used.
+     */
+    @Query("SELECT le.accountId, SUM(CASE WHEN le.type = 'CREDIT' THEN ABS(le.amount) ELSE -ABS(le.amount) END) " +
+            "FROM LedgerEntry le GROUP BY le.accountId")
+    Stream<Object[]> streamAccountBalances();
+
+    /**
+     * Ledger-derived balance of every account with id in {@code [from, to)} that has entries, as
+     * (accountId, balance) rows
+     */
+    @Query("SELECT le.accountId, SUM(CASE WHEN le.type = 'CREDIT' THEN ABS(le.amount) ELSE -ABS(le.amount) END) " +
+            "FROM LedgerEntry le WHERE le.accountId >= :from AND le.accountId < :to GROUP BY le.accountId")
+    List<Object[]> sumAccountBalancesInRange(@Param("from") long from, @Param("to") long to);
+
+    /**
+     * Batch idempotency probe: returns the subset of the given transfer ids that already have entries
+     */
+    @Query("SELECT DISTINCT le.transferId FROM LedgerEntry le WHERE le.transferId IN :transferIds")
+    List<String> findExistingTransferIds(@Param("transferIds") Collection<String> transferIds);
 }
@@ -0,0 +1,13 @@
+package com.fintech.ledger_service.repository;
+
+import com.fintech.ledger_service.entity.ReconciliationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    Optional<ReconciliationRun> findTopByOrderByIdDesc();
+}
@@ -0,0 +1,128 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.AccountCacheConfig;
+import com.fintech.ledger_service.entity.Account;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded cache of committed account state for {@link LedgerService#getAccount(Long, com.fintech.ledger_service.data.ReadConsistency)}.
+ * <p>
+ * Entries are detached snapshots keyed by account id, evicted by size and by age. A snapshot only replaces one
+ * with the same or an older row version, so a reader that loaded an account before a transfer committed cannot
+ * overwrite the state the transfer put after its commit. Sharded accounts are never cached: their balance lives
+ * in the shard buckets and changes without the row version. Writes made by other instances or outside
+ * {@link LedgerService} are picked up once the entry expires.
+ * <p>
+ * Hit, miss, eviction and size meters are published as {@code cache.*} with {@code cache=accounts}.
+ */
+@Component
+public class AccountCache {
+
+    private final AccountCacheConfig config;
+    private final Cache<Long, Account> cache;
+
+    public AccountCache(AccountCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accounts");
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * A copy of the cached account, safe for the caller to modify
+     */
+    public Optional<Account> get(Long accountId) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Account cached = cache.getIfPresent(accountId);
+        return cached != null ? Optional.of(snapshot(cached)) : Optional.empty();
+    }
+
+    /**
+     * Cache committed account state, unless a newer version is already cached
+     */
+    public void put(Account account) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (account.isSharded()) {
+            cache.invalidate(account.getId());
+            return;
+        }
+        cache.asMap().merge(account.getId(), snapshot(account),
+                (cached, loaded) -> loaded.getVersion() >= cached.getVersion() ? loaded : cached);
+    }
+
+    /**
+     * Cache the accounts' state once the current transaction commits; nothing is cached if it rolls back.
+     * The snapshot is taken after the commit flush, so it carries the incremented row version.
+     */
+    public void putAfterCommit(Collection<Account> accounts) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accounts.forEach(this::put);
+            return;
+        }
+        List<Account> committed = List.copyOf(accounts);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed.forEach(AccountCache.this::put);
+            }
+        });
+    }
+
+    public void invalidate(Long accountId) {
+        cache.invalidate(accountId);
+    }
+
+    /**
+     * Evict an account once the current transaction commits, for changes that must not wait for a later read to
+     * replace the cached state
+     */
+    public void invalidateAfterCommit(Long accountId) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(accountId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(accountId);
+            }
+        });
+    }
+
+    private static Account snapshot(Account account) {
+        Account copy = new Account(account.getId());
+        copy.setBalance(account.getBalance());
+        copy.setVersion(account.getVersion());
+        copy.setShardCount(account.getShardCount());
+        copy.setCreatedAt(account.getCreatedAt());
+        copy.setUpdatedAt(account.getUpdatedAt());
+        return copy;
+    }
+}
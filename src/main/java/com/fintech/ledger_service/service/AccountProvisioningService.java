@@ -0,0 +1,140 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.ProvisioningConfig;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.util.IdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Bulk account creation for onboarding whole portfolios.
+ * <p>
+ * Ids are reserved up front in blocks of {@link Account#ID_BLOCK_SIZE} from the same sequence Hibernate draws
+ * account ids from, so one sequence call covers a thousand accounts and never collides with single creations.
+ * Accounts and their opening-balance entries are then written with JDBC batch inserts, bypassing the persistence
+ * context, all in one transaction.
+ */
+@Service
+public class AccountProvisioningService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountProvisioningService.class);
+
+    static final String INSERT_ACCOUNT = "INSERT INTO accounts " +
+            "(id, balance, version, shard_count, created_at, updated_at) VALUES (?, ?, 1, 0, ?, ?)";
+    static final String INSERT_ENTRY = "INSERT INTO ledger_entries " +
+            "(id, transfer_id, account_id, amount, type, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+    private final ChangeFeedService changeFeedService;
+    private final ProvisioningConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final String nextIdBlockSql;
+    private final Counter provisioned;
+    private final Timer provisionTimer;
+
+    public AccountProvisioningService(JdbcTemplate jdbcTemplate,
+                                      EntityManagerFactory entityManagerFactory,
+                                      IdGenerator idGenerator,
+                                      ChangeFeedService changeFeedService,
+                                      ProvisioningConfig config,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+        this.changeFeedService = changeFeedService;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nextIdBlockSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(Account.ID_SEQUENCE);
+
+        this.provisioned = Counter.builder("ledger.accounts.provisioned")
+                .description("Accounts created through bulk provisioning")
+                .register(meterRegistry);
+        this.provisionTimer = Timer.builder("ledger.accounts.provisioning.duration")
+                .description("Time to bulk-create one batch request of accounts")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Create one account per initial balance, all or none
+     *
+     * @return the new account ids, in the order of the balances
+     */
+    public LongStream createAccounts(List<Money> initialBalances) {
+        for (Money initialBalance : initialBalances) {
+            if (initialBalance == null || initialBalance.isNegative()) {
+                throw new IllegalArgumentException("Initial balance must be non-negative");
+            }
+        }
+        if (initialBalances.isEmpty()) {
+            return LongStream.empty();
+        }
+
+        long started = System.nanoTime();
+        long[] idBlocks = transactionTemplate.execute(status -> insert(initialBalances));
+        long elapsed = System.nanoTime() - started;
+        provisionTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        provisioned.increment(initialBalances.size());
+        log.info("Provisioned {} accounts in {} ms", initialBalances.size(), elapsed / 1_000_000);
+
+        return LongStream.range(0, initialBalances.size()).map(i -> accountId(idBlocks, i));
+    }
+
+    private long[] insert(List<Money> initialBalances) {
+        int count = initialBalances.size();
+        long[] idBlocks = new long[Math.ceilDiv(count, Account.ID_BLOCK_SIZE)];
+        for (int block = 0; block < idBlocks.length; block++) {
+            idBlocks[block] = jdbcTemplate.queryForObject(nextIdBlockSql, Long.class);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = config.getBatchSize();
+        for (int from = 0; from < count; from += batchSize) {
+            int to = Math.min(from + batchSize, count);
+            List<Object[]> accounts = new ArrayList<>(to - from);
+            List<LedgerEntry> entries = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                long accountId = accountId(idBlocks, i);
+                Money initialBalance = initialBalances.get(i);
+                accounts.add(new Object[]{accountId, initialBalance.toBigDecimal(), now, now});
+                if (initialBalance.isPositive()) {
+                    entries.add(new LedgerEntry(idGenerator.nextId(), "INITIAL-" + idGenerator.nextId(),
+                            accountId, initialBalance, EntryType.CREDIT));
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accounts);
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, entries.stream()
+                    .map(entry -> new Object[]{entry.getId(), entry.getTransferId(), entry.getAccountId(),
+                            entry.getAmount().toBigDecimal(), entry.getType().name(),
+                            Timestamp.valueOf(entry.getCreatedAt())})
+                    .toList());
+            changeFeedService.record(entries);
+        }
+        return idBlocks;
+    }
+
+    private static long accountId(long[] idBlocks, long index) {
+        return idBlocks[(int) (index / Account.ID_BLOCK_SIZE)] + index % Account.ID_BLOCK_SIZE;
+    }
+}
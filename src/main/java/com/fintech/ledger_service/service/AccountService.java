@@ -1,5 +1,6 @@
 package com.fintech.ledger_service.service;
 
+import com.fintech.ledger_service.domain.Money;
 import com.fintech.ledger_service.entity.Account;
 import com.fintech.ledger_service.repository.AccountRepository;
 import org.slf4j.Logger;
@@ -8,8 +9,6 @@ import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-
 @Service
 @Transactional
 public class AccountService {
@@ -22,7 +21,7 @@ public class AccountService {
         this.accountRepository = accountRepository;
     }
 
-    public Account createAccount(Long accountId, BigDecimal initialBalance) {
+    public Account createAccount(Long accountId, Money initialBalance) {
         String correlationId = MDC.get("correlationId");
         log.info("Creating account: {} with balance: {} [correlationId={}]", accountId, initialBalance, correlationId);
 
@@ -31,7 +30,7 @@ public class AccountService {
             throw new IllegalArgumentException("Account ID cannot be null or empty");
         }
 
-        if (initialBalance == null || initialBalance.compareTo(BigDecimal.ZERO) < 0) {
+        if (initialBalance == null || initialBalance.isNegative()) {
             throw new IllegalArgumentException("Initial balance must be non-negative");
         }
 
@@ -58,18 +57,18 @@ public class AccountService {
     }
 
     @Transactional(readOnly = true)
-    public BigDecimal getAccountBalance(Long accountId) {
+    public Money getAccountBalance(Long accountId) {
         Account account = getAccount(accountId);
         return account.getBalance();
     }
 
-    public void transferFunds(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+    public void transferFunds(Long fromAccountId, Long toAccountId, Money amount) {
         String correlationId = MDC.get("correlationId");
         log.info("Processing transfer: {} -> {} amount: {} [correlationId={}]",
                 fromAccountId, toAccountId, amount, correlationId);
 
         // Validate input
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Transfer amount must be positive");
         }
 
@@ -85,7 +84,7 @@ public class AccountService {
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + toAccountId));
 
         // Check sufficient funds
-        if (fromAccount.getBalance().compareTo(amount) < 0) {
+        if (fromAccount.getBalance().isLessThan(amount)) {
             log.warn("Insufficient funds for transfer: {} has {} but needs {} [correlationId={}]",
                     fromAccountId, fromAccount.getBalance(), amount, correlationId);
             throw new IllegalArgumentException("Insufficient funds");
@@ -0,0 +1,195 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.ShardingConfig;
+import com.fintech.ledger_service.data.ShardSelection;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.entity.AccountShard;
+import com.fintech.ledger_service.exception.InsufficientFundsException;
+import com.fintech.ledger_service.exception.ShardSweepRequiredException;
+import com.fintech.ledger_service.repository.AccountRepository;
+import com.fintech.ledger_service.repository.AccountShardRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in hot-account sharding.
+ * <p>
+ * A sharded account keeps its balance in N rows of {@code account_shards}. Credits lock a single bucket
+ * chosen by hash of the transfer id or at random; debits lock one bucket that can cover the amount and only
+ * sweep across all buckets, in shard order, when none can. Batch transfers lock account rows and therefore skip
+ * sharded accounts.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountShardService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountShardService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountShardRepository accountShardRepository;
+    private final ShardingConfig shardingConfig;
+    private final AccountCache accountCache;
+
+    public boolean isEnabled() {
+        return shardingConfig.isEnabled();
+    }
+
+    /**
+     * Split an account's balance across shard buckets
+     */
+    @Transactional
+    public Account shardAccount(Long accountId, Integer requestedShardCount) {
+        if (!isEnabled()) {
+            throw new IllegalArgumentException("Account sharding is not enabled");
+        }
+        int shardCount = requestedShardCount != null ? requestedShardCount : shardingConfig.getDefaultShardCount();
+        if (shardCount < 2 || shardCount > shardingConfig.getMaxShardCount()) {
+            throw new IllegalArgumentException("Shard count must be between 2 and " + shardingConfig.getMaxShardCount());
+        }
+
+        Account account = accountRepository.findByIdWithLock(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+        if (account.isSharded()) {
+            throw new IllegalArgumentException("Account already sharded: " + accountId);
+        }
+
+        // Split evenly; the rounding remainder goes to bucket 0
+        long balance = account.getBalance().getMinorUnits();
+        long share = balance / shardCount;
+        long remainder = balance % shardCount;
+
+        List<AccountShard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new AccountShard(accountId, i, Money.ofMinor(i == 0 ? share + remainder : share)));
+        }
+        accountShardRepository.saveAll(shards);
+
+        account.setBalance(Money.ZERO);
+        account.setShardCount(shardCount);
+        account.setUpdatedAt(LocalDateTime.now());
+
+        // The cached unsharded snapshot would keep reporting the old balance while the buckets move
+        accountCache.invalidateAfterCommit(accountId);
+
+        log.info("Account {} sharded into {} buckets", accountId, shardCount);
+        return accountRepository.save(account);
+    }
+
+    /**
+     * Which of the given accounts are sharded, mapped to their shard count
+     */
+    public Map<Long, Integer> findShardCounts(Collection<Long> accountIds) {
+        Map<Long, Integer> shardCounts = new HashMap<>();
+        for (Object[] row : accountRepository.findShardCounts(accountIds)) {
+            shardCounts.put((Long) row[0], (Integer) row[1]);
+        }
+        return shardCounts;
+    }
+
+    /**
+     * Summed balance of a sharded account: its own row plus every bucket
+     */
+    public Money getTotalBalance(Account account) {
+        return account.getBalance().plus(Money.of(accountShardRepository.sumBalanceByAccountId(account.getId())));
+    }
+
+    public Money getTotalBalance(Long accountId) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+        return getTotalBalance(account);
+    }
+
+    /**
+     * Lock the single bucket that will receive a credit
+     */
+    public AccountShard lockShardForCredit(Long accountId, int shardCount, String transferId) {
+        int shardIndex = selectShard(shardCount, transferId);
+        return accountShardRepository.findShardWithLock(accountId, shardIndex)
+                .orElseThrow(() -> new IllegalStateException("Missing shard " + shardIndex + " for account " + accountId));
+    }
+
+    /**
+     * Lock bucket(s) that together cover a debit. Nothing is mutated here, so an
+     * {@link InsufficientFundsException} leaves all buckets untouched.
+     *
+     * @throws ShardSweepRequiredException when the bucket picked from the snapshot was drained by a concurrent
+     *                                     debit before it was locked; retry with {@link #lockAllShardsForDebit}
+     *                                     in a new transaction
+     */
+    public List<AccountShard> lockShardsForDebit(Long accountId, int shardCount, String transferId, Money amount) {
+        // Pick a bucket from an unlocked snapshot, starting at the selected index to spread load
+        List<Object[]> snapshot = accountShardRepository.findShardBalances(accountId);
+        int start = selectShard(shardCount, transferId);
+        for (int i = 0; i < snapshot.size(); i++) {
+            Object[] row = snapshot.get((start + i) % snapshot.size());
+            if (!((Money) row[1]).isLessThan(amount)) {
+                int shardIndex = (Integer) row[0];
+                AccountShard shard = accountShardRepository.findShardWithLock(accountId, shardIndex)
+                        .orElseThrow(() -> new IllegalStateException("Missing shard " + shardIndex + " for account " + accountId));
+                if (shard.getBalance().isLessThan(amount)) {
+                    // Sweeping from here would hold this bucket out of shard order
+                    throw new ShardSweepRequiredException("Shard " + shardIndex + " of account " + accountId
+                            + " no longer covers " + amount);
+                }
+                return List.of(shard);
+            }
+        }
+
+        // No single bucket suffices and none is locked yet
+        return lockAllShardsForDebit(accountId, amount);
+    }
+
+    /**
+     * Lock every bucket in shard order for a debit drained across buckets. Must not be called while holding a
+     * bucket lock of the same account.
+     */
+    public List<AccountShard> lockAllShardsForDebit(Long accountId, Money amount) {
+        log.debug("Debit of {} on account {} needs a multi-bucket sweep", amount, accountId);
+        List<AccountShard> shards = accountShardRepository.findAllByAccountIdWithLock(accountId);
+        Money total = shards.stream().map(AccountShard::getBalance).reduce(Money.ZERO, Money::plus);
+        if (total.isLessThan(amount)) {
+            throw new InsufficientFundsException("Insufficient funds. Current balance: " + total + ", requested: " + amount);
+        }
+        return shards;
+    }
+
+    /**
+     * Debit the amount from locked buckets, draining them in order
+     */
+    public void debit(List<AccountShard> shards, Money amount) {
+        Money remaining = amount;
+        for (AccountShard shard : shards) {
+            if (remaining.isZero()) {
+                break;
+            }
+            Money portion = shard.getBalance().min(remaining);
+            if (portion.isPositive()) {
+                shard.debit(portion);
+                remaining = remaining.minus(portion);
+            }
+        }
+        if (remaining.isPositive()) {
+            throw new InsufficientFundsException("Insufficient funds across shards, short by " + remaining);
+        }
+        accountShardRepository.saveAll(shards);
+    }
+
+    private int selectShard(int shardCount, String transferId) {
+        if (shardingConfig.getSelection() == ShardSelection.RANDOM) {
+            return ThreadLocalRandom.current().nextInt(shardCount);
+        }
+        return Math.floorMod(transferId.hashCode(), shardCount);
+    }
+}
@@ -0,0 +1,142 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.CheckpointConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.BalanceCheckpoint;
+import com.fintech.ledger_service.repository.BalanceCheckpointRepository;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Ledger-derived balances backed by per-account checkpoints.
+ * <p>
+ * A checkpoint holds the balance over every entry created at or before its {@code checkpointAt}, so a
+ * read only sums the entries after it. The background job advances checkpoints to {@code now - safetyLag};
+ * the lag must exceed the longest a transaction (or the sequencer's persistence queue) can hold an entry
+ * before it commits, otherwise that entry would land behind a checkpoint that never counted it.
+ * In verify mode every read and every new checkpoint is cross-checked against the full SUM.
+ */
+@Service
+public class BalanceCheckpointService {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceCheckpointService.class);
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final CheckpointConfig checkpointConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter mismatches;
+
+    private volatile LocalDateTime lastCheckpointAt;
+
+    public BalanceCheckpointService(LedgerEntryRepository ledgerEntryRepository,
+                                    BalanceCheckpointRepository balanceCheckpointRepository,
+                                    CheckpointConfig checkpointConfig,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.checkpointConfig = checkpointConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mismatches = Counter.builder("ledger.checkpoint.mismatches")
+                .description("Checkpointed balances that disagreed with the full ledger SUM in verify mode")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ledger-derived balance of an account: its checkpoint plus the entries created after it
+     */
+    @Transactional(readOnly = true)
+    public Money getLedgerBalance(Long accountId) {
+        Optional<BalanceCheckpoint> checkpoint = checkpointConfig.isEnabled()
+                ? balanceCheckpointRepository.findById(accountId)
+                : Optional.empty();
+        if (checkpoint.isEmpty()) {
+            return Money.of(ledgerEntryRepository.calculateAccountBalance(accountId));
+        }
+
+        Money balance = checkpoint.get().getBalance()
+                .plus(Money.of(ledgerEntryRepository.sumAccountEntriesAfter(accountId, checkpoint.get().getCheckpointAt())));
+        if (checkpointConfig.isVerify()) {
+            return verified(accountId, balance, Money.of(ledgerEntryRepository.calculateAccountBalance(accountId)));
+        }
+        return balance;
+    }
+
+    /**
+     * Advance the checkpoint of every account with entries since the previous run
+     */
+    @Scheduled(fixedDelayString = "${ledger.checkpoint.interval:PT5M}")
+    public void checkpointAll() {
+        if (!checkpointConfig.isEnabled()) {
+            return;
+        }
+        if (lastCheckpointAt == null) {
+            LocalDateTime oldest = balanceCheckpointRepository.findOldestCheckpointAt();
+            lastCheckpointAt = oldest != null ? oldest : BEGINNING;
+        }
+
+        long started = System.currentTimeMillis();
+        // Truncated so the boundary survives the round trip through the timestamp column unchanged
+        LocalDateTime upTo = LocalDateTime.now().minus(checkpointConfig.getSafetyLag()).truncatedTo(ChronoUnit.MILLIS);
+        if (!upTo.isAfter(lastCheckpointAt)) {
+            return;
+        }
+
+        List<Long> accountIds = ledgerEntryRepository.findAccountIdsWithEntriesBetween(lastCheckpointAt, upTo);
+        for (Long accountId : accountIds) {
+            transactionTemplate.executeWithoutResult(status -> checkpoint(accountId, upTo));
+        }
+        lastCheckpointAt = upTo;
+
+        if (!accountIds.isEmpty()) {
+            log.info("Checkpointed {} account balances up to {} in {} ms",
+                    accountIds.size(), upTo, System.currentTimeMillis() - started);
+        }
+    }
+
+    private void checkpoint(Long accountId, LocalDateTime upTo) {
+        BalanceCheckpoint checkpoint = balanceCheckpointRepository.findById(accountId)
+                .orElseGet(() -> new BalanceCheckpoint(accountId, Money.ZERO, BEGINNING));
+        if (!upTo.isAfter(checkpoint.getCheckpointAt())) {
+            return;
+        }
+
+        Money balance = checkpoint.getBalance()
+                .plus(Money.of(ledgerEntryRepository.sumAccountEntriesBetween(accountId, checkpoint.getCheckpointAt(), upTo)));
+        if (checkpointConfig.isVerify()) {
+            balance = verified(accountId, balance,
+                    Money.of(ledgerEntryRepository.sumAccountEntriesBetween(accountId, BEGINNING, upTo)));
+        }
+
+        checkpoint.setBalance(balance);
+        checkpoint.setCheckpointAt(upTo);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        balanceCheckpointRepository.save(checkpoint);
+    }
+
+    private Money verified(Long accountId, Money checkpointed, Money fullSum) {
+        if (!checkpointed.equals(fullSum)) {
+            mismatches.increment();
+            log.error("Checkpointed balance {} of account {} disagrees with full ledger sum {}",
+                    checkpointed, accountId, fullSum);
+            return fullSum;
+        }
+        return checkpointed;
+    }
+}
@@ -0,0 +1,162 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.ChangeFeedConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.entity.LedgerChange;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.repository.LedgerChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global change feed of committed ledger entries, enabled with {@code ledger.change-feed.enabled}.
+ * <p>
+ * Every path that writes ledger entries also writes them to the {@code ledger_changes} outbox in the same
+ * transaction. The relay then gives committed changes their feed positions in id order, one batch per
+ * transaction, so a position is only ever committed after every smaller one and a consumer can page through
+ * the feed with the last position it has seen. Consumers waiting at the head of the feed are woken when the
+ * relay moves it.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final LedgerChangeRepository ledgerChangeRepository;
+    private final ChangeFeedConfig config;
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sequenced;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private volatile long lastPosition = -1;
+
+    public ChangeFeedService(LedgerChangeRepository ledgerChangeRepository,
+                             ChangeFeedConfig config,
+                             @Qualifier("applicationTaskExecutor") Executor executor,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.ledgerChangeRepository = ledgerChangeRepository;
+        this.config = config;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequenced = Counter.builder("ledger.change.feed.sequenced")
+                .description("Ledger changes given a change feed position by the relay")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Add ledger entries to the outbox of the current transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<LedgerEntry> entries) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        ledgerChangeRepository.saveAll(entries.stream().map(LedgerChange::new).toList());
+    }
+
+    /**
+     * Up to {@code limit} changes after the given position, in feed order
+     */
+    @Transactional(readOnly = true)
+    public List<LedgerChange> read(long after, int limit) {
+        return ledgerChangeRepository.findAfter(after, Limit.of(limit));
+    }
+
+    /**
+     * Long-poll for changes after the given position: completes as soon as there are any, or with an empty
+     * list once {@code wait} (capped at {@code ledger.change-feed.max-wait}) has passed
+     */
+    public CompletableFuture<List<LedgerChange>> poll(long after, int limit, Duration wait) {
+        List<LedgerChange> changes = read(after, limit);
+        if (!changes.isEmpty() || wait.isZero() || wait.isNegative()) {
+            return CompletableFuture.completedFuture(changes);
+        }
+
+        Waiter waiter = new Waiter(after, new CompletableFuture<>());
+        waiters.add(waiter);
+        // The relay may have moved the head between the read and registering
+        if (lastPosition > after) {
+            waiter.wakeUp().complete(null);
+        }
+        long waitMs = Math.min(wait.toMillis(), config.getMaxWait().toMillis());
+        return waiter.wakeUp()
+                .completeOnTimeout(null, waitMs, TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, e) -> waiters.remove(waiter))
+                .thenApplyAsync(ignored -> read(after, limit), executor);
+    }
+
+    /**
+     * Give committed changes their feed positions and wake consumers waiting for them
+     */
+    @Scheduled(fixedDelayString = "${ledger.change-feed.relay-interval:PT0.1S}")
+    public void relay() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            int count;
+            do {
+                count = transactionTemplate.execute(status -> sequenceBatch());
+            } while (count == config.getRelayBatchSize());
+            // Also picks up positions handed out by another instance's relay; a lagging replica would hold back
+            // the head this relay just moved
+            lastPosition = ReplicaRoutingDataSource.onPrimary(ledgerChangeRepository::findLastPosition);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Change feed positions taken by a concurrent relay, retrying on the next run");
+            return;
+        }
+        wakeWaiters();
+    }
+
+    private int sequenceBatch() {
+        List<LedgerChange> changes = ledgerChangeRepository.findUnsequencedWithLock(Limit.of(config.getRelayBatchSize()));
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        long position = ledgerChangeRepository.findLastPosition();
+        for (LedgerChange change : changes) {
+            change.setPosition(++position);
+        }
+        ledgerChangeRepository.flush();
+        sequenced.increment(changes.size());
+        return changes.size();
+    }
+
+    private void wakeWaiters() {
+        long head = lastPosition;
+        for (Waiter waiter : waiters) {
+            if (waiter.after() < head) {
+                waiter.wakeUp().complete(null);
+            }
+        }
+    }
+
+    private record Waiter(long after, CompletableFuture<Void> wakeUp) {
+    }
+}
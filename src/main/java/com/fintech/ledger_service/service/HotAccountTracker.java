@@ -0,0 +1,146 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.HotAccountConfig;
+import com.fintech.ledger_service.domain.HotAccount;
+import com.fintech.ledger_service.util.CountMinSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Heavy-hitter tracking of the accounts touched by transfers, to find the accounts behind lock convoys.
+ * <p>
+ * Access counts and lock wait time are kept in count-min sketches, and the top-K accounts by access count in a
+ * small candidate set. Recording an account that is already a candidate, or whose estimate is below the
+ * smallest candidate, takes no lock. Windows rotate like {@link TransferIdFilter}: reports cover the current
+ * and previous window, so they reflect the last one to two window lengths.
+ */
+@Service
+public class HotAccountTracker {
+
+    private final HotAccountConfig config;
+
+    private volatile Window current;
+    private volatile Window previous;
+
+    public HotAccountTracker(HotAccountConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.current = new Window();
+
+        Gauge.builder("ledger.hot.accounts.memory", this, HotAccountTracker::getMemoryBytes)
+                .baseUnit("bytes").description("Memory held by the current and previous hot-account windows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record one transfer touching the account and the time it waited for the account's lock
+     */
+    public void record(Long accountId, long lockWaitNanos) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Window window = current;
+        long accesses = window.accesses.add(accountId, 1);
+        if (lockWaitNanos > 0) {
+            window.lockWaitNanos.add(accountId, lockWaitNanos);
+        }
+        window.offer(accountId, accesses);
+    }
+
+    /**
+     * The most frequently accessed accounts over the current and previous window, most accessed first
+     */
+    public List<HotAccount> getHotAccounts(int limit) {
+        Window window = current;
+        Window older = previous;
+
+        Set<Long> accountIds = new HashSet<>(window.candidates.keySet());
+        if (older != null) {
+            accountIds.addAll(older.candidates.keySet());
+        }
+
+        return accountIds.stream()
+                .map(accountId -> {
+                    long accesses = window.accesses.estimate(accountId)
+                            + (older != null ? older.accesses.estimate(accountId) : 0);
+                    long waitNanos = window.lockWaitNanos.estimate(accountId)
+                            + (older != null ? older.lockWaitNanos.estimate(accountId) : 0);
+                    double waitMs = waitNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+                    return new HotAccount(accountId, accesses, waitMs, accesses == 0 ? 0 : waitMs / accesses);
+                })
+                .sorted(Comparator.comparingLong(HotAccount::accesses).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.hot-accounts.window:PT1M}",
+            initialDelayString = "${ledger.hot-accounts.window:PT1M}")
+    public void rotate() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        previous = current;
+        current = new Window();
+    }
+
+    public long getMemoryBytes() {
+        Window older = previous;
+        return current.getMemoryBytes() + (older != null ? older.getMemoryBytes() : 0);
+    }
+
+    private final class Window {
+        private final CountMinSketch accesses = new CountMinSketch(config.getEpsilon(), config.getDelta());
+        private final CountMinSketch lockWaitNanos = new CountMinSketch(config.getEpsilon(), config.getDelta());
+        // Top-K accounts by estimated accesses, with the estimate at their last access
+        private final Map<Long, Long> candidates = new ConcurrentHashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        // Smallest candidate estimate once the set is full; may lag behind, which only costs extra lock attempts
+        private volatile long threshold;
+
+        void offer(Long accountId, long estimate) {
+            if (candidates.replace(accountId, estimate) != null) {
+                return;
+            }
+            if (estimate <= threshold) {
+                return;
+            }
+
+            lock.lock();
+            try {
+                if (candidates.replace(accountId, estimate) != null) {
+                    return;
+                }
+                if (candidates.size() >= config.getTopK()) {
+                    Map.Entry<Long, Long> smallest = candidates.entrySet().stream()
+                            .min(Map.Entry.comparingByValue())
+                            .orElseThrow();
+                    if (estimate <= smallest.getValue()) {
+                        threshold = smallest.getValue();
+                        return;
+                    }
+                    candidates.remove(smallest.getKey());
+                }
+                candidates.put(accountId, estimate);
+                if (candidates.size() >= config.getTopK()) {
+                    threshold = candidates.values().stream().mapToLong(Long::longValue).min().orElse(0);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long getMemoryBytes() {
+            return accesses.getMemoryBytes() + lockWaitNanos.getMemoryBytes();
+        }
+    }
+}
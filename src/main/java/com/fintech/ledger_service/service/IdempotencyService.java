@@ -0,0 +1,162 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.IdempotencyConfig;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.entity.IdempotencyKey;
+import com.fintech.ledger_service.repository.IdempotencyKeyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Durable idempotency store for single transfers.
+ * <p>
+ * A transfer claims its id with an insert before touching any account and records its result in the
+ * same transaction, so a rollback releases the claim and a retry is answered with one primary-key
+ * lookup. Keys live for {@code ledger.idempotency.ttl} and are deleted a whole expiry bucket at a time.
+ * <p>
+ * Two concurrent claims of one id both get past any existence check, so the claim is the insert itself:
+ * the loser blocks on the primary key, fails once the winner commits and is answered from the winner's row.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final String INSERT_KEY_SQL =
+            "INSERT INTO idempotency_keys (transfer_id, created_at, expiry_bucket) VALUES (?, ?, ?)";
+
+    // SQLSTATE of a unique violation, on PostgreSQL and H2 alike
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    // A lost claim whose row is gone again was released by its transfer and can be taken over
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyConfig idempotencyConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              IdempotencyConfig idempotencyConfig,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.idempotencyConfig = idempotencyConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Claim a transfer id for the current transaction.
+     *
+     * @return empty when the id was claimed by this call; otherwise the stored result to return instead
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<TransferResult> claim(String transferId) {
+        LocalDateTime now = LocalDateTime.now();
+        long expiryBucket = expiryBucketFor(now);
+
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS; attempt++) {
+            if (insertKey(transferId, now, expiryBucket)) {
+                return Optional.empty();
+            }
+
+            Optional<IdempotencyKey> key = idempotencyKeyRepository.findById(transferId);
+            if (key.isPresent()) {
+                if (!key.get().isCompleted()) {
+                    return Optional.of(TransferResult.failure(transferId, "Transfer already in progress"));
+                }
+                return Optional.of(TransferResult.alreadyProcessed(transferId,
+                        key.get().getFromBalanceAfter(), key.get().getToBalanceAfter(), key.get().getCompletedAt()));
+            }
+        }
+        return Optional.of(TransferResult.failure(transferId, "Transfer already in progress"));
+    }
+
+    /**
+     * Store the result of a successful transfer against its claimed key
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(TransferResult result) {
+        idempotencyKeyRepository.complete(result.getTransferId(),
+                result.getFromBalanceAfter(), result.getToBalanceAfter(), result.getTimestamp());
+    }
+
+    /**
+     * Give a claimed key back, e.g. after a business failure that should not be replayed to retries
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String transferId) {
+        idempotencyKeyRepository.release(transferId);
+    }
+
+    /**
+     * Delete every fully expired bucket, oldest first, one bucket per transaction
+     */
+    @Scheduled(fixedDelayString = "${ledger.idempotency.purge-interval:PT15M}")
+    public void purgeExpired() {
+        long currentBucket = bucketOf(LocalDateTime.now());
+        long purged = 0;
+
+        Long oldest = idempotencyKeyRepository.findOldestExpiryBucket();
+        while (oldest != null && oldest < currentBucket) {
+            long bucket = oldest;
+            purged += transactionTemplate.execute(status -> idempotencyKeyRepository.deleteByExpiryBucket(bucket));
+            oldest = idempotencyKeyRepository.findOldestExpiryBucket();
+        }
+
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * Insert the key under a savepoint, so a duplicate only undoes itself instead of aborting the caller's
+     * transaction. Plain JDBC: a constraint violation raised through Hibernate marks the transaction rollback-only.
+     *
+     * @return true when this call inserted the key, false when it already exists
+     */
+    private boolean insertKey(String transferId, LocalDateTime createdAt, long expiryBucket) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_KEY_SQL)) {
+                insert.setString(1, transferId);
+                insert.setObject(2, createdAt);
+                insert.setLong(3, expiryBucket);
+                insert.executeUpdate();
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (SQLException e) {
+                connection.rollback(savepoint);
+                if (UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    return false;
+                }
+                throw e;
+            }
+        });
+    }
+
+    private long expiryBucketFor(LocalDateTime createdAt) {
+        return bucketOf(createdAt.plus(idempotencyConfig.getTtl()));
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / idempotencyConfig.getBucketWidth().toSeconds();
+    }
+}
@@ -0,0 +1,178 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.ArchiveConfig;
+import com.fintech.ledger_service.data.ArchiveFormat;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.ArchiveSummary;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.util.LedgerArchiveFormat;
+import com.fintech.ledger_service.util.LedgerArchiveFormat.AccountRecord;
+import com.fintech.ledger_service.util.LedgerArchiveFormat.ArchiveRecord;
+import com.fintech.ledger_service.util.LedgerArchiveFormat.EntryRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves the whole ledger ({@code accounts} and {@code ledger_entries}) to and from {@link LedgerArchiveFormat}
+ * files with plain JDBC, for migrations, backfills and disaster recovery drills.
+ * <p>
+ * Export streams both tables through server-side cursors inside one repeatable-read snapshot, so the archive is
+ * consistent even while transfers keep committing. Sharded accounts are exported with their shard buckets folded
+ * into the balance and come back unsharded. Import writes batched inserts, one transaction per batch, and then
+ * moves the account id sequence past the imported ids. It expects an empty ledger that nothing else writes to
+ * meanwhile; imported entries do not go through the change feed.
+ * <p>
+ * Imported entries keep their original {@code created_at}, so a balance checkpoint taken while an import is under
+ * way would never count the older entries committed after it. Scheduled jobs do not run in archive command mode,
+ * and the import ends by deleting every balance checkpoint in case another instance sharing the database took
+ * one; balances are then summed in full until the checkpoint job catches up again.
+ */
+@Service
+public class LedgerArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerArchiveService.class);
+
+    private static final String SELECT_ACCOUNTS = "SELECT a.id, a.balance + COALESCE(s.balance, 0), " +
+            "a.created_at, a.updated_at FROM accounts a " +
+            "LEFT JOIN (SELECT account_id, SUM(balance) AS balance FROM account_shards GROUP BY account_id) s " +
+            "ON s.account_id = a.id ORDER BY a.id";
+    private static final String SELECT_ENTRIES =
+            "SELECT id, transfer_id, account_id, amount, type, created_at FROM ledger_entries";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final ArchiveConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTransactionTemplate;
+
+    public LedgerArchiveService(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                ArchiveConfig config,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(config.getFetchSize());
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setReadOnly(true);
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public ArchiveSummary export(Path file, ArchiveFormat format, boolean compress) throws IOException {
+        long started = System.currentTimeMillis();
+        log.info("Exporting ledger to {} ({}{})", file, format, compress ? ", compressed" : "");
+        try (LedgerArchiveFormat.Writer writer = LedgerArchiveFormat.newWriter(file, format, compress)) {
+            snapshotTransactionTemplate.executeWithoutResult(status -> {
+                cursorJdbcTemplate.query(SELECT_ACCOUNTS, (RowCallbackHandler) rs -> write(writer, new AccountRecord(
+                        rs.getLong(1),
+                        Money.of(rs.getBigDecimal(2)),
+                        rs.getObject(3, LocalDateTime.class),
+                        rs.getObject(4, LocalDateTime.class))));
+                cursorJdbcTemplate.query(SELECT_ENTRIES, (RowCallbackHandler) rs -> write(writer, new EntryRecord(
+                        rs.getString(1),
+                        rs.getString(2),
+                        rs.getLong(3),
+                        Money.of(rs.getBigDecimal(4)),
+                        EntryType.valueOf(rs.getString(5)),
+                        rs.getObject(6, LocalDateTime.class))));
+            });
+            writer.finish();
+            return summarize("Exported", file, writer.accounts(), writer.entries(), started);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public ArchiveSummary importArchive(Path file) throws IOException {
+        long started = System.currentTimeMillis();
+        log.info("Importing ledger from {}", file);
+        int batchSize = config.getBatchSize();
+        List<Object[]> accounts = new ArrayList<>(batchSize);
+        List<Object[]> entries = new ArrayList<>(batchSize);
+        long accountCount = 0;
+        long entryCount = 0;
+
+        try (LedgerArchiveFormat.Reader reader = LedgerArchiveFormat.newReader(file)) {
+            for (ArchiveRecord record = reader.next(); record != null; record = reader.next()) {
+                switch (record) {
+                    case AccountRecord account -> {
+                        accounts.add(new Object[]{account.id(), account.balance().toBigDecimal(),
+                                timestamp(account.createdAt()), timestamp(account.updatedAt())});
+                        accountCount++;
+                        if (accounts.size() == batchSize) {
+                            insert(AccountProvisioningService.INSERT_ACCOUNT, accounts);
+                        }
+                    }
+                    case EntryRecord entry -> {
+                        entries.add(new Object[]{entry.id(), entry.transferId(), entry.accountId(),
+                                entry.amount().toBigDecimal(), entry.type().name(), timestamp(entry.createdAt())});
+                        entryCount++;
+                        if (entries.size() == batchSize) {
+                            insert(AccountProvisioningService.INSERT_ENTRY, entries);
+                        }
+                    }
+                }
+            }
+        }
+        insert(AccountProvisioningService.INSERT_ACCOUNT, accounts);
+        insert(AccountProvisioningService.INSERT_ENTRY, entries);
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM accounts", Long.class);
+        if (maxId != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + Account.ID_SEQUENCE + " RESTART WITH " + (maxId + 1));
+        }
+        int droppedCheckpoints = jdbcTemplate.update("DELETE FROM balance_checkpoints");
+        if (droppedCheckpoints > 0) {
+            log.warn("Deleted {} balance checkpoints taken while the import was running", droppedCheckpoints);
+        }
+        return summarize("Imported", file, accountCount, entryCount, started);
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+        rows.clear();
+    }
+
+    private static void write(LedgerArchiveFormat.Writer writer, ArchiveRecord record) {
+        try {
+            writer.write(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    private static ArchiveSummary summarize(String action, Path file, long accounts, long entries, long started)
+            throws IOException {
+        ArchiveSummary summary = new ArchiveSummary(file, accounts, entries, Files.size(file),
+                System.currentTimeMillis() - started);
+        log.info("{} {} accounts and {} entries ({} bytes) in {} ms: {} records/s, {} MB/s", action,
+                accounts, entries, summary.bytes(), summary.elapsedMs(), Math.round(summary.recordsPerSecond()),
+                String.format("%.1f", summary.megabytesPerSecond()));
+        return summary;
+    }
+}
@@ -0,0 +1,261 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.AuditConfig;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TimeWindow;
+import com.fintech.ledger_service.domain.TrialBalanceReport;
+import com.fintech.ledger_service.domain.UnbalancedTransfer;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Whole-ledger trial balance over a time window.
+ * <p>
+ * The window is cut into time slices audited in parallel. Each slice streams its entries ordered by transfer id
+ * and folds them one transfer at a time, so memory stays constant however many entries the slice holds. The two
+ * entries of a transfer are timestamped separately and can land in neighbouring slices, or straddle the window
+ * itself; such halves are combined across slices and any transfer still unbalanced is re-read in full before it
+ * is reported.
+ */
+@Service
+public class LedgerAuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerAuditService.class);
+
+    // Account opening entries (see LedgerService#createAccount) credit an account without a counterpart
+    private static final String OPENING_BALANCE_PREFIX = "INITIAL";
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AuditConfig config;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public LedgerAuditService(LedgerEntryRepository ledgerEntryRepository,
+                              AuditConfig config,
+                              PlatformTransactionManager transactionManager) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.config = config;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public TrialBalanceReport trialBalance(TimeWindow window) {
+        return trialBalance(window, config.getParallelism());
+    }
+
+    /**
+     * Check that every transfer with entries in the window balances, and total its debits and credits
+     */
+    public TrialBalanceReport trialBalance(TimeWindow window, int slices) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("Slice count must be positive");
+        }
+        long started = System.currentTimeMillis();
+        List<TimeWindow> timeSlices = slice(occupied(window), slices);
+
+        List<SliceAudit> audits = new ArrayList<>(timeSlices.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(config.getParallelism(), timeSlices.size()),
+                Thread.ofPlatform().name("ledger-audit-", 0).factory());
+        try {
+            List<Future<SliceAudit>> futures = new ArrayList<>(timeSlices.size());
+            for (TimeWindow timeSlice : timeSlices) {
+                futures.add(executor.submit(() -> auditSlice(timeSlice)));
+            }
+            for (Future<SliceAudit> future : futures) {
+                audits.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Trial balance failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during trial balance", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TrialBalanceReport report = combine(window, audits);
+        log.info("Trial balance of {} entries in {} over {} slices in {} ms: debits {}, credits {}, {} unbalanced transfers",
+                report.entries(), window, timeSlices.size(), System.currentTimeMillis() - started,
+                report.totalDebits(), report.totalCredits(), report.unbalancedCount());
+        return report;
+    }
+
+    /**
+     * Narrow the window to the entries it holds, so open-ended windows are not sliced across empty centuries
+     */
+    private TimeWindow occupied(TimeWindow window) {
+        Object[] range = ledgerEntryRepository.findCreatedAtRange(window.from(), window.to()).getFirst();
+        if (range[0] == null) {
+            return window;
+        }
+        LocalDateTime last = ((LocalDateTime) range[1]).plusNanos(1000);
+        return new TimeWindow((LocalDateTime) range[0], last.isBefore(window.to()) ? last : window.to());
+    }
+
+    private static List<TimeWindow> slice(TimeWindow window, int slices) {
+        Duration width = Duration.between(window.from(), window.to()).dividedBy(slices);
+        if (width.isZero()) {
+            return List.of(window);
+        }
+        List<TimeWindow> timeSlices = new ArrayList<>(slices);
+        LocalDateTime from = window.from();
+        for (int i = 1; i <= slices; i++) {
+            LocalDateTime to = i == slices ? window.to() : from.plus(width);
+            timeSlices.add(new TimeWindow(from, to));
+            from = to;
+        }
+        return timeSlices;
+    }
+
+    private SliceAudit auditSlice(TimeWindow timeSlice) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            SliceAudit audit = new SliceAudit(config.getMaxReportedTransfers());
+            try (Stream<Object[]> rows = ledgerEntryRepository.streamTransferAmounts(timeSlice.from(), timeSlice.to())) {
+                rows.forEach(row -> audit.add((String) row[0], (EntryType) row[1], (Money) row[2]));
+            }
+            audit.closeTransfer();
+            return audit;
+        });
+    }
+
+    private TrialBalanceReport combine(TimeWindow window, List<SliceAudit> audits) {
+        long entries = 0;
+        long transfers = 0;
+        long debits = 0;
+        long credits = 0;
+        long openingBalances = 0;
+        long unreported = 0;
+        // Halves of one transfer found in different slices are added up here
+        Map<String, long[]> candidates = new LinkedHashMap<>();
+        for (SliceAudit audit : audits) {
+            entries += audit.entries;
+            transfers += audit.transfers;
+            debits = Math.addExact(debits, audit.debits);
+            credits = Math.addExact(credits, audit.credits);
+            openingBalances = Math.addExact(openingBalances, audit.openingBalances);
+            unreported += audit.unreported;
+            for (UnbalancedTransfer candidate : audit.unbalanced) {
+                long[] sums = candidates.get(candidate.transferId());
+                if (sums == null) {
+                    candidates.put(candidate.transferId(),
+                            new long[]{candidate.debits().getMinorUnits(), candidate.credits().getMinorUnits()});
+                } else {
+                    sums[0] += candidate.debits().getMinorUnits();
+                    sums[1] += candidate.credits().getMinorUnits();
+                    transfers--;
+                }
+            }
+        }
+
+        List<UnbalancedTransfer> unbalanced = new ArrayList<>();
+        for (Map.Entry<String, long[]> candidate : candidates.entrySet()) {
+            long[] sums = candidate.getValue();
+            if (sums[0] != sums[1]) {
+                // May still straddle the window itself
+                sums = readInFull(candidate.getKey());
+            }
+            if (sums[0] != sums[1]) {
+                unbalanced.add(new UnbalancedTransfer(candidate.getKey(), Money.ofMinor(sums[0]), Money.ofMinor(sums[1])));
+            }
+        }
+        for (UnbalancedTransfer transfer : unbalanced) {
+            log.error("Transfer {} is unbalanced: debits {}, credits {}",
+                    transfer.transferId(), transfer.debits(), transfer.credits());
+        }
+
+        return new TrialBalanceReport(window, audits.size(), entries, transfers, Money.ofMinor(debits),
+                Money.ofMinor(credits), Money.ofMinor(openingBalances), unbalanced.size() + unreported,
+                List.copyOf(unbalanced));
+    }
+
+    private long[] readInFull(String transferId) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            long[] sums = new long[2];
+            for (LedgerEntry entry : ledgerEntryRepository.findByTransferIdOrderByCreatedAt(transferId)) {
+                sums[entry.getType() == EntryType.DEBIT ? 0 : 1] += Math.abs(entry.getAmount().getMinorUnits());
+            }
+            return sums;
+        });
+    }
+
+    /**
+     * Running totals of one slice; only the transfer currently being read is held open
+     */
+    private static final class SliceAudit {
+        private final int maxReported;
+        private final List<UnbalancedTransfer> unbalanced = new ArrayList<>();
+        private long unreported;
+        private long entries;
+        private long transfers;
+        private long debits;
+        private long credits;
+        private long openingBalances;
+
+        private String transferId;
+        private long transferDebits;
+        private long transferCredits;
+
+        private SliceAudit(int maxReported) {
+            this.maxReported = maxReported;
+        }
+
+        private void add(String entryTransferId, EntryType type, Money amount) {
+            if (!entryTransferId.equals(transferId)) {
+                closeTransfer();
+                transferId = entryTransferId;
+            }
+            entries++;
+            // Debits are stored negated by applyTransfer but positive by processTransfer
+            long magnitude = Math.abs(amount.getMinorUnits());
+            if (type == EntryType.DEBIT) {
+                transferDebits = Math.addExact(transferDebits, magnitude);
+            } else {
+                transferCredits = Math.addExact(transferCredits, magnitude);
+            }
+        }
+
+        private void closeTransfer() {
+            if (transferId == null) {
+                return;
+            }
+            if (transferId.startsWith(OPENING_BALANCE_PREFIX)) {
+                openingBalances = Math.addExact(openingBalances, transferCredits - transferDebits);
+            } else {
+                transfers++;
+                debits = Math.addExact(debits, transferDebits);
+                credits = Math.addExact(credits, transferCredits);
+                if (transferDebits != transferCredits) {
+                    if (unbalanced.size() < maxReported) {
+                        unbalanced.add(new UnbalancedTransfer(transferId,
+                                Money.ofMinor(transferDebits), Money.ofMinor(transferCredits)));
+                    } else {
+                        unreported++;
+                    }
+                }
+            }
+            transferId = null;
+            transferDebits = 0;
+            transferCredits = 0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.PartitioningConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates monthly {@code ledger_entries} range partitions ahead of time on PostgreSQL.
+ * <p>
+ * Partitions are added contiguously from the highest existing upper bound until
+ * {@code ledger.partitioning.months-ahead} months past the current one are covered, so inserts
+ * never fall through to the default partition. Runs at startup and then daily.
+ */
+@Service
+public class LedgerPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerPartitionMaintainer.class);
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitioningConfig partitioningConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public LedgerPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                     PartitioningConfig partitioningConfig,
+                                     PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitioningConfig = partitioningConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${ledger.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void ensurePartitions() {
+        if (!partitioningConfig.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime horizon = YearMonth.now().plusMonths(partitioningConfig.getMonthsAhead() + 1L).atDay(1).atStartOfDay();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime from = findHighestUpperBound();
+                if (from == null) {
+                    from = YearMonth.now().atDay(1).atStartOfDay();
+                }
+                while (from.isBefore(horizon)) {
+                    LocalDateTime to = YearMonth.from(from).plusMonths(1).atDay(1).atStartOfDay();
+                    createPartition(from, to);
+                    from = to;
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to create ledger_entries partitions up to {}", horizon, e);
+        }
+    }
+
+    private LocalDateTime findHighestUpperBound() {
+        List<String> bounds = jdbcTemplate.queryForList(
+                "SELECT pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'ledger_entries'::regclass",
+                String.class);
+
+        return bounds.stream()
+                .map(UPPER_BOUND::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> LocalDateTime.parse(matcher.group(1), BOUND_FORMAT))
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+
+    private void createPartition(LocalDateTime from, LocalDateTime to) {
+        String name = "ledger_entries_" + from.format(PARTITION_SUFFIX);
+        jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF ledger_entries " +
+                "FOR VALUES FROM ('" + from.format(BOUND_FORMAT) + "') TO ('" + to.format(BOUND_FORMAT) + "')");
+        log.info("Created ledger_entries partition {} for [{}, {})", name, from, to);
+    }
+}
@@ -1,25 +1,59 @@
 package com.fintech.ledger_service.service;
 
+import com.fintech.ledger_service.config.DatabaseConfig;
+import com.fintech.ledger_service.config.ReplicaConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.data.BatchMode;
 import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.data.ReadConsistency;
+import com.fintech.ledger_service.domain.HistoryCursor;
+import com.fintech.ledger_service.domain.HistoryPage;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TimeWindow;
 import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.dto.AccountHistoryResponse;
+import com.fintech.ledger_service.dto.TransferRequest;
 import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.entity.AccountShard;
 import com.fintech.ledger_service.entity.LedgerEntry;
 import com.fintech.ledger_service.exception.InsufficientFundsException;
+import com.fintech.ledger_service.exception.ShardSweepRequiredException;
 import com.fintech.ledger_service.repository.AccountRepository;
 import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.service.TransferMetrics.Operation;
+import com.fintech.ledger_service.service.TransferMetrics.Outcome;
+import com.fintech.ledger_service.service.TransferMetrics.Phase;
+import com.fintech.ledger_service.util.IdGenerator;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +61,23 @@ public class LedgerService {
 
     private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
 
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
     private final AccountRepository accountRepository;
     private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccountShardService accountShardService;
+    private final SequencerTransferEngine sequencerTransferEngine;
+    private final TransferIdFilter transferIdFilter;
+    private final IdempotencyService idempotencyService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final IdGenerator idGenerator;
+    private final TransferMetrics transferMetrics;
+    private final HotAccountTracker hotAccountTracker;
+    private final DatabaseConfig databaseConfig;
+    private final ReplicaConfig replicaConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final ChangeFeedService changeFeedService;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -37,16 +86,21 @@ public class LedgerService {
      * Create a new account with initial balance
      */
     @Transactional
-    public Account createAccount(BigDecimal initialBalance) {
+    public Account createAccount(Money initialBalance) {
+        long started = System.nanoTime();
         log.info("Creating account with initial balance {}", initialBalance);
 
         // Create new account
         Account account = new Account(initialBalance);
         Account savedAccount = accountRepository.save(account);
+        long phaseStarted = transferMetrics.recordPhase(Operation.CREATE_ACCOUNT, Phase.BALANCE_MUTATION, started);
 
         createInitialLedgerEntry(savedAccount.getId(), initialBalance);
+        transferMetrics.recordPhase(Operation.CREATE_ACCOUNT, Phase.ENTRY_PERSISTENCE, phaseStarted);
 
         log.info("Successfully created account {}", savedAccount.getId());
+        transferMetrics.recordOutcome(Operation.CREATE_ACCOUNT, Outcome.SUCCESS);
+        transferMetrics.recordOperation(Operation.CREATE_ACCOUNT, started);
         return savedAccount;
     }
 
@@ -54,7 +108,8 @@ public class LedgerService {
      * Create account with specific ID (for testing)
      */
     @Transactional
-    public Account createAccount(Long accountId, BigDecimal initialBalance) {
+    public Account createAccount(Long accountId, Money initialBalance) {
+        long started = System.nanoTime();
         String correlationId = MDC.get("correlationId");
         log.info("Creating account: {} with initial balance: {} [correlationId={}]",
                 accountId, initialBalance, correlationId);
@@ -64,7 +119,7 @@ public class LedgerService {
             throw new IllegalArgumentException("Account ID cannot be null or empty");
         }
 
-        if (initialBalance == null || initialBalance.compareTo(BigDecimal.ZERO) < 0) {
+        if (initialBalance == null || initialBalance.isNegative()) {
             throw new IllegalArgumentException("Initial balance must be non-negative");
         }
 
@@ -76,30 +131,35 @@ public class LedgerService {
         // Create account
         Account account = new Account(initialBalance);
         Account savedAccount = accountRepository.saveAndFlush(account);
+        long phaseStarted = transferMetrics.recordPhase(Operation.CREATE_ACCOUNT, Phase.BALANCE_MUTATION, started);
 
         // Create initial balance entry if needed
-        if (initialBalance.compareTo(BigDecimal.ZERO) > 0) {
-            String transferId = "INITIAL-" + UUID.randomUUID();
+        if (initialBalance.isPositive()) {
+            String transferId = "INITIAL-" + idGenerator.nextId();
             LedgerEntry initialEntry = new LedgerEntry(
-                    UUID.randomUUID().toString(),
+                    idGenerator.nextId(),
                     transferId,
                     accountId,
                     initialBalance,
                     EntryType.CREDIT
             );
             ledgerEntryRepository.save(initialEntry);
+            changeFeedService.record(List.of(initialEntry));
 
             log.info("Initial balance entry created for account: {} amount: {} [correlationId={}]",
                     accountId, initialBalance, correlationId);
         }
+        transferMetrics.recordPhase(Operation.CREATE_ACCOUNT, Phase.ENTRY_PERSISTENCE, phaseStarted);
 
         log.info("Account created successfully: {} [correlationId={}]", accountId, correlationId);
+        transferMetrics.recordOutcome(Operation.CREATE_ACCOUNT, Outcome.SUCCESS);
+        transferMetrics.recordOperation(Operation.CREATE_ACCOUNT, started);
         return savedAccount;
     }
 
-    private void createInitialLedgerEntry(Long accountId, BigDecimal initialBalance) {
-        if (initialBalance.compareTo(BigDecimal.ZERO) > 0) {
-            String entryId = UUID.randomUUID().toString();
+    private void createInitialLedgerEntry(Long accountId, Money initialBalance) {
+        if (initialBalance.isPositive()) {
+            String entryId = idGenerator.nextId();
             LedgerEntry initialEntry = new LedgerEntry(
                     entryId,
                     "INITIAL_BALANCE",
@@ -108,53 +168,246 @@ public class LedgerService {
                     EntryType.CREDIT
             );
             ledgerEntryRepository.save(initialEntry);
+            changeFeedService.record(List.of(initialEntry));
+        }
+    }
+
+    /**
+     * Get account by ID, served from the account cache unless {@link ReadConsistency#STRICT} is asked for.
+     * A cache hit takes no database connection or transaction; a miss reads in a read-only transaction, which
+     * a read replica may serve and which then leaves the cache alone. STRICT always reads the primary.
+     */
+    public Account getAccount(Long accountId, ReadConsistency consistency) {
+        if (consistency == ReadConsistency.STRICT) {
+            return transactionTemplate.execute(status -> getAccount(accountId));
         }
+        // Sequenced balances are already in memory and move without the account row
+        if (!sequencerTransferEngine.isEnabled()) {
+            Optional<Account> cached = accountCache.get(accountId);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager(), READ_ONLY);
+        return readOnly.execute(status -> getAccount(accountId));
     }
 
     /**
-     * Get account by ID
+     * Get account by ID, always from the database
      */
     @Transactional(readOnly = true)
     public Account getAccount(Long accountId) {
-        return accountRepository.findById(accountId)
+        Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+
+        if (sequencerTransferEngine.isEnabled()) {
+            // The sequencer's in-memory balance is authoritative; the row catches up asynchronously
+            Optional<Money> sequencedBalance = sequencerTransferEngine.currentBalance(accountId);
+            if (sequencedBalance.isPresent()) {
+                entityManager.detach(account);
+                account.setBalance(sequencedBalance.get());
+                return account;
+            }
+        }
+
+        if (account.isSharded()) {
+            // Report the summed balance without letting it flush back to the account row
+            entityManager.detach(account);
+            account.setBalance(accountShardService.getTotalBalance(account));
+        }
+        if (readsPrimary()) {
+            accountCache.put(account);
+        }
+        return account;
     }
 
     /**
-     * Apply a transfer between two accounts atomically
+     * Whether the current transaction reads the primary. A lagging replica's row put into the account cache
+     * would outlive the lag, so only primary reads populate it.
      */
-    @Transactional
-    public TransferResult applyTransfer(String transferId, Long fromAccountId, Long toAccountId, BigDecimal amount) {
+    private boolean readsPrimary() {
+        return !replicaConfig.isEnabled()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingDataSource.isPrimaryRequested();
+    }
+
+    /**
+     * Apply a transfer between two accounts atomically.
+     * <p>
+     * With {@code ledger.enable-optimistic-locking} the accounts are read without row locks and written under
+     * their version check; a transfer that loses a race is retried in a new transaction up to
+     * {@code ledger.max-retries} times. Transactions are demarcated here rather than by {@code @Transactional}
+     * because a retry needs a fresh one.
+     * <p>
+     * A debit from a sharded account whose chosen bucket was drained concurrently is likewise redone in a new
+     * transaction, sweeping all buckets in shard order.
+     */
+    public TransferResult applyTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
+        long started = System.nanoTime();
+        try {
+            try {
+                return applyTransfer(transferId, fromAccountId, toAccountId, amount, false);
+            } catch (ShardSweepRequiredException e) {
+                // The rollback released the bucket lock, which was out of shard order for the sweep
+                log.debug("Transfer {} retrying with a multi-bucket sweep: {}", transferId, e.getMessage());
+                transferMetrics.recordRetry(Operation.APPLY_TRANSFER);
+                return applyTransfer(transferId, fromAccountId, toAccountId, amount, true);
+            }
+        } finally {
+            transferMetrics.recordOperation(Operation.APPLY_TRANSFER, started);
+        }
+    }
+
+    private TransferResult applyTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount,
+                                         boolean sweepShards) {
+        if (databaseConfig.isEnableOptimisticLocking() && !sequencerTransferEngine.isEnabled()) {
+            return applyOptimisticTransfer(transferId, fromAccountId, toAccountId, amount, sweepShards);
+        }
+        return transactionTemplate.execute(status ->
+                doApplyTransfer(transferId, fromAccountId, toAccountId, amount, false, sweepShards));
+    }
+
+    /**
+     * A single attempt of {@link #applyTransfer} in the caller's transaction, for the {@link TransferCoalescer}
+     * which shares one transaction between many transfers. A lost optimistic race is thrown as an
+     * {@link OptimisticLockingFailureException} and a drained shard bucket as a {@link ShardSweepRequiredException}
+     * rather than retried; both leave locks that only rolling back the whole transaction releases.
+     * <p>
+     * Deliberately not {@code @Transactional}: a failure passing through a participating transaction boundary
+     * would mark the caller's whole transaction rollback-only.
+     */
+    public TransferResult applyTransferInCurrentTransaction(String transferId, Long fromAccountId, Long toAccountId,
+                                                            Money amount) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Transfer " + transferId + " must be applied in an active transaction");
+        }
+        // Not timed here: the caller's end-to-end duration includes the wait for the shared commit
+        return doApplyTransfer(transferId, fromAccountId, toAccountId, amount,
+                databaseConfig.isEnableOptimisticLocking(), false);
+    }
+
+    /**
+     * Run optimistic attempts until one commits, backing off for a random time between attempts so transfers
+     * that collided do not collide again in lockstep
+     */
+    private TransferResult applyOptimisticTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount,
+                                                   boolean sweepShards) {
+        int maxRetries = databaseConfig.getMaxRetries();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status ->
+                        doApplyTransfer(transferId, fromAccountId, toAccountId, amount, true, sweepShards));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxRetries) {
+                    log.warn("Transfer {} still conflicting after {} retries", transferId, maxRetries);
+                    transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.CONFLICT);
+                    return TransferResult.failure(transferId, "Transfer conflicted with concurrent updates, please retry");
+                }
+                log.debug("Transfer {} conflicted with a concurrent update, retrying (attempt {})", transferId, attempt + 1);
+                transferMetrics.recordRetry(Operation.APPLY_TRANSFER);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long maxDelayMs = databaseConfig.getRetryBackoffMs() << Math.min(attempt, 10);
+        if (maxDelayMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelayMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off transfer retry", e);
+        }
+    }
+
+    private TransferResult doApplyTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount,
+                                           boolean optimistic, boolean sweepShards) {
         log.info("Processing transfer {} from {} to {} amount {}", transferId, fromAccountId, toAccountId, amount);
 
-        // Check for idempotency first
-        if (ledgerEntryRepository.existsByTransferId(transferId)) {
+        // The sequencer engine owns balances and idempotency in memory
+        if (sequencerTransferEngine.isEnabled()) {
+            validateTransferInputs(transferId, fromAccountId, toAccountId, amount);
+            try {
+                // No row locks on this path, so only access frequency is tracked
+                hotAccountTracker.record(fromAccountId, 0);
+                hotAccountTracker.record(toAccountId, 0);
+                TransferResult result = sequencerTransferEngine.applyTransfer(transferId, fromAccountId, toAccountId, amount);
+                transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, !result.isSuccess() ? Outcome.INSUFFICIENT_FUNDS
+                        : result.isReplay() ? Outcome.REPLAY : Outcome.SUCCESS);
+                return result;
+            } catch (Exception e) {
+                log.error("Transfer {} failed unexpectedly", transferId, e);
+                transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.ERROR);
+                throw new RuntimeException("Transfer failed: " + e.getMessage(), e);
+            }
+        }
+
+        // Validate inputs
+        validateTransferInputs(transferId, fromAccountId, toAccountId, amount);
+
+        // Claim the transfer id first; a retry gets the stored result of the original transfer
+        long phaseStarted = System.nanoTime();
+        Optional<TransferResult> storedResult = idempotencyService.claim(transferId);
+        if (storedResult.isPresent()) {
+            log.info("Transfer {} already claimed, returning stored result", transferId);
+            transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.IDEMPOTENCY_CHECK, phaseStarted);
+            transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.REPLAY);
+            return storedResult.get();
+        }
+
+        // Transfers applied before the store existed, or whose key has expired
+        if (isAlreadyProcessed(transferId)) {
             log.info("Transfer {} already processed, returning existing result", transferId);
+            idempotencyService.release(transferId);
+            transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.IDEMPOTENCY_CHECK, phaseStarted);
+            transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.REPLAY);
             Account fromAccount = getAccount(fromAccountId);
             Account toAccount = getAccount(toAccountId);
             return TransferResult.alreadyProcessed(transferId, fromAccount.getBalance(), toAccount.getBalance());
         }
-
-        // Validate inputs
-        validateTransferInputs(transferId, fromAccountId, toAccountId, amount);
+        phaseStarted = transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.IDEMPOTENCY_CHECK, phaseStarted);
 
         try {
+            if (accountShardService.isEnabled()) {
+                Map<Long, Integer> shardCounts = accountShardService.findShardCounts(List.of(fromAccountId, toAccountId));
+                if (!shardCounts.isEmpty()) {
+                    TransferResult result = applyShardedTransfer(transferId, fromAccountId, toAccountId, amount,
+                            shardCounts, sweepShards, phaseStarted);
+                    transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.SUCCESS);
+                    return result;
+                }
+            }
+
             // Lock accounts in consistent order (by ID) to prevent deadlocks
             List<Long> accountIds = Arrays.asList(fromAccountId, toAccountId);
             accountIds.sort(Long::compareTo); // Fixed comparison
 
-            List<Account> lockedAccounts = accountRepository.findByIdsWithLock(accountIds);
+            // Optimistic reads take no row locks; the version-checked updates are flushed in id order
+            // (hibernate.order_updates) and only lock the rows from the flush to the commit
+            List<Account> accounts = optimistic
+                    ? accountRepository.findAllById(accountIds)
+                    : accountRepository.findByIdsWithLock(accountIds);
 
             // Find the specific accounts
-            Account fromAccount = lockedAccounts.stream()
+            Account fromAccount = accounts.stream()
                     .filter(acc -> acc.getId().equals(fromAccountId))
                     .findFirst()
                     .orElseThrow(() -> new IllegalArgumentException("From account not found: " + fromAccountId));
 
-            Account toAccount = lockedAccounts.stream()
+            Account toAccount = accounts.stream()
                     .filter(acc -> acc.getId().equals(toAccountId))
                     .findFirst()
                     .orElseThrow(() -> new IllegalArgumentException("To account not found: " + toAccountId));
+            if (optimistic) {
+                // No lock wait to report; the plain read counts towards the balance mutation
+                hotAccountTracker.record(fromAccountId, 0);
+                hotAccountTracker.record(toAccountId, 0);
+            } else {
+                phaseStarted = recordLockAcquisition(fromAccountId, toAccountId, phaseStarted);
+            }
 
             // Apply the transfer
             fromAccount.debit(amount);
@@ -163,68 +416,439 @@ public class LedgerService {
             // Save the updated accounts
             accountRepository.save(fromAccount);
             accountRepository.save(toAccount);
+            phaseStarted = transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.BALANCE_MUTATION, phaseStarted);
 
             // Create ledger entries
-            String debitEntryId = UUID.randomUUID().toString();
-            String creditEntryId = UUID.randomUUID().toString();
-
-            LedgerEntry debitEntry = new LedgerEntry(
-                    debitEntryId,
-                    transferId,
-                    fromAccountId,
-                    amount.negate(),
-                    EntryType.DEBIT
-            );
-
-            LedgerEntry creditEntry = new LedgerEntry(
-                    creditEntryId,
-                    transferId,
-                    toAccountId,
-                    amount,
-                    EntryType.CREDIT
-            );
-
-            ledgerEntryRepository.save(debitEntry);
-            ledgerEntryRepository.save(creditEntry);
+            recordTransferEntries(transferId, fromAccountId, toAccountId, amount);
 
             log.info("Transfer {} completed successfully. From balance: {}, To balance: {}",
                     transferId, fromAccount.getBalance(), toAccount.getBalance());
 
-            return TransferResult.success(transferId, fromAccount.getBalance(), toAccount.getBalance());
+            TransferResult result = TransferResult.success(transferId, fromAccount.getBalance(), toAccount.getBalance());
+            idempotencyService.complete(result);
+            // Issue the pending statements here so they are timed as entry persistence rather than at commit
+            ledgerEntryRepository.flush();
+            accountCache.putAfterCommit(List.of(fromAccount, toAccount));
+            transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.ENTRY_PERSISTENCE, phaseStarted);
+            transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.SUCCESS);
+            return result;
 
         } catch (InsufficientFundsException e) {
             log.warn("Transfer {} failed due to insufficient funds: {}", transferId, e.getMessage());
+            // Not replayed: the transfer may succeed on a later retry
+            idempotencyService.release(transferId);
+            transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.INSUFFICIENT_FUNDS);
             return TransferResult.failure(transferId, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            if (!optimistic) {
+                transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.ERROR);
+            }
+            // Rolls the attempt back; the optimistic path retries it
+            throw e;
+        } catch (ShardSweepRequiredException e) {
+            // Rolls the attempt back; applyTransfer redoes it with a sweep
+            throw e;
         } catch (Exception e) {
             log.error("Transfer {} failed unexpectedly", transferId, e);
+            transferMetrics.recordOutcome(Operation.APPLY_TRANSFER, Outcome.ERROR);
             throw new RuntimeException("Transfer failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Record the lock acquisition phase, charging its duration to both accounts as lock wait
+     *
+     * @return the start of the next phase
+     */
+    private long recordLockAcquisition(Long fromAccountId, Long toAccountId, long phaseStarted) {
+        long lockAcquired = transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.LOCK_ACQUISITION, phaseStarted);
+        hotAccountTracker.record(fromAccountId, lockAcquired - phaseStarted);
+        hotAccountTracker.record(toAccountId, lockAcquired - phaseStarted);
+        return lockAcquired;
+    }
+
+    /**
+     * Transfer path when either side is sharded. Regular accounts are locked first in id order, then one
+     * bucket per sharded account, again in account id order. Nothing is mutated until every lock is held
+     * and the debit is known to be covered. With {@code sweepShards} a sharded debit locks all of its buckets
+     * in shard order straight away.
+     */
+    private TransferResult applyShardedTransfer(String transferId, Long fromAccountId, Long toAccountId,
+                                                Money amount, Map<Long, Integer> shardCounts, boolean sweepShards,
+                                                long phaseStarted) {
+        List<Long> rowLockedIds = Stream.of(fromAccountId, toAccountId)
+                .filter(id -> !shardCounts.containsKey(id))
+                .sorted()
+                .toList();
+        List<Account> lockedAccounts = rowLockedIds.isEmpty() ? List.of() : accountRepository.findByIdsWithLock(rowLockedIds);
+
+        Account fromAccount = shardCounts.containsKey(fromAccountId) ? null : lockedAccounts.stream()
+                .filter(acc -> acc.getId().equals(fromAccountId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("From account not found: " + fromAccountId));
+
+        Account toAccount = shardCounts.containsKey(toAccountId) ? null : lockedAccounts.stream()
+                .filter(acc -> acc.getId().equals(toAccountId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("To account not found: " + toAccountId));
+
+        List<AccountShard> debitShards = null;
+        AccountShard creditShard = null;
+        for (Long accountId : new TreeSet<>(shardCounts.keySet())) {
+            if (accountId.equals(fromAccountId)) {
+                debitShards = sweepShards
+                        ? accountShardService.lockAllShardsForDebit(accountId, amount)
+                        : accountShardService.lockShardsForDebit(accountId, shardCounts.get(accountId), transferId, amount);
+            } else {
+                creditShard = accountShardService.lockShardForCredit(accountId, shardCounts.get(accountId), transferId);
+            }
+        }
+        phaseStarted = recordLockAcquisition(fromAccountId, toAccountId, phaseStarted);
+
+        if (debitShards != null) {
+            accountShardService.debit(debitShards, amount);
+        } else {
+            fromAccount.debit(amount);
+            accountRepository.save(fromAccount);
+        }
+
+        if (creditShard != null) {
+            creditShard.credit(amount);
+        } else {
+            toAccount.credit(amount);
+            accountRepository.save(toAccount);
+        }
+        phaseStarted = transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.BALANCE_MUTATION, phaseStarted);
+
+        recordTransferEntries(transferId, fromAccountId, toAccountId, amount);
+
+        Money fromBalance = fromAccount != null ? fromAccount.getBalance() : accountShardService.getTotalBalance(fromAccountId);
+        Money toBalance = toAccount != null ? toAccount.getBalance() : accountShardService.getTotalBalance(toAccountId);
+
+        log.info("Sharded transfer {} completed successfully. From balance: {}, To balance: {}",
+                transferId, fromBalance, toBalance);
+
+        TransferResult result = TransferResult.success(transferId, fromBalance, toBalance);
+        idempotencyService.complete(result);
+        ledgerEntryRepository.flush();
+        accountCache.putAfterCommit(lockedAccounts);
+        transferMetrics.recordPhase(Operation.APPLY_TRANSFER, Phase.ENTRY_PERSISTENCE, phaseStarted);
+        return result;
+    }
+
+    private void recordTransferEntries(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
+        LedgerEntry debitEntry = new LedgerEntry(
+                idGenerator.nextId(),
+                transferId,
+                fromAccountId,
+                amount.negate(),
+                EntryType.DEBIT
+        );
+
+        LedgerEntry creditEntry = new LedgerEntry(
+                idGenerator.nextId(),
+                transferId,
+                toAccountId,
+                amount,
+                EntryType.CREDIT
+        );
+
+        ledgerEntryRepository.save(debitEntry);
+        ledgerEntryRepository.save(creditEntry);
+        changeFeedService.record(List.of(debitEntry, creditEntry));
+        transferIdFilter.record(transferId);
+    }
+
+    /**
+     * Apply a batch of transfers in a single transaction.
+     * <p>
+     * All touched accounts are locked once, in id order, and every ledger entry is written through one
+     * batched insert. In {@link BatchMode#ALL_OR_NOTHING} mode a single failed transfer leaves every
+     * account untouched; in {@link BatchMode#INDEPENDENT} mode each transfer succeeds or fails on its own.
+     * Every transfer id is claimed in the idempotency store like a single transfer's, so a batch and a
+     * retried single transfer with the same id cannot both apply it.
+     */
+    @Transactional
+    public List<TransferResult> applyTransfers(List<TransferRequest> transfers, BatchMode mode) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Batch mode cannot be null");
+        }
+        log.info("Processing batch of {} transfers in {} mode", transfers.size(), mode);
+
+        if (sequencerTransferEngine.isEnabled()) {
+            return applySequencedTransfers(transfers, mode);
+        }
+
+        Set<String> transferIds = new TreeSet<>();
+        Set<Long> accountIds = new TreeSet<>();
+        Map<TransferRequest, Money> amounts = new IdentityHashMap<>(transfers.size());
+        for (TransferRequest transfer : transfers) {
+            Money amount = toMoney(transfer.getAmount());
+            validateTransferInputs(transfer.getTransferId(), transfer.getFromAccountId(),
+                    transfer.getToAccountId(), amount);
+            amounts.put(transfer, amount);
+            transferIds.add(transfer.getTransferId());
+            accountIds.add(transfer.getFromAccountId());
+            accountIds.add(transfer.getToAccountId());
+        }
+
+        // Claim every id before locking any account, as single transfers do, and in id order so two
+        // overlapping batches cannot deadlock on the keys
+        Map<String, TransferResult> storedResults = new HashMap<>();
+        Set<String> claimedTransferIds = new HashSet<>();
+        for (String transferId : transferIds) {
+            idempotencyService.claim(transferId).ifPresentOrElse(
+                    storedResult -> storedResults.put(transferId, storedResult),
+                    () -> claimedTransferIds.add(transferId));
+        }
+
+        // One probe for transfers applied before the store existed, and one lock acquisition for the whole batch
+        Set<String> processedTransferIds = new HashSet<>(ledgerEntryRepository.findExistingTransferIds(transferIds));
+
+        Map<Long, Account> lockedAccounts = new HashMap<>();
+        for (Account account : accountRepository.findByIdsWithLock(new ArrayList<>(accountIds))) {
+            lockedAccounts.put(account.getId(), account);
+        }
+
+        // Dry-run every transfer against working balances before touching the managed entities
+        Map<Long, Money> balances = new HashMap<>();
+        lockedAccounts.forEach((id, account) -> balances.put(id, account.getBalance()));
+
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        List<TransferRequest> accepted = new ArrayList<>(transfers.size());
+        Map<String, TransferResult> appliedResults = new HashMap<>();
+        String firstFailure = null;
+
+        for (TransferRequest transfer : transfers) {
+            String transferId = transfer.getTransferId();
+            Long fromAccountId = transfer.getFromAccountId();
+            Long toAccountId = transfer.getToAccountId();
+            Money amount = amounts.get(transfer);
+
+            if (storedResults.containsKey(transferId)) {
+                results.add(storedResults.get(transferId));
+                continue;
+            }
+            if (processedTransferIds.contains(transferId)) {
+                results.add(TransferResult.alreadyProcessed(transferId, balances.get(fromAccountId), balances.get(toAccountId)));
+                continue;
+            }
+
+            String failure = null;
+            if (!lockedAccounts.containsKey(fromAccountId)) {
+                failure = "From account not found: " + fromAccountId;
+            } else if (!lockedAccounts.containsKey(toAccountId)) {
+                failure = "To account not found: " + toAccountId;
+            } else if (lockedAccounts.get(fromAccountId).isSharded() || lockedAccounts.get(toAccountId).isSharded()) {
+                failure = "Sharded accounts are not supported in batch transfers";
+            } else if (balances.get(fromAccountId).isLessThan(amount)) {
+                failure = "Insufficient funds. Current balance: " + balances.get(fromAccountId) + ", requested: " + amount;
+            }
+
+            if (failure != null) {
+                log.warn("Batch transfer {} failed: {}", transferId, failure);
+                results.add(TransferResult.failure(transferId, failure));
+                if (firstFailure == null) {
+                    firstFailure = transferId + ": " + failure;
+                }
+                continue;
+            }
+
+            Money fromBalance = balances.get(fromAccountId).minus(amount);
+            Money toBalance = balances.get(toAccountId).plus(amount);
+            balances.put(fromAccountId, fromBalance);
+            balances.put(toAccountId, toBalance);
+
+            TransferResult result = TransferResult.success(transferId, fromBalance, toBalance);
+            processedTransferIds.add(transferId);
+            accepted.add(transfer);
+            appliedResults.put(transferId, result);
+            results.add(result);
+        }
+
+        if (mode == BatchMode.ALL_OR_NOTHING && firstFailure != null) {
+            log.warn("Batch rejected in {} mode, first failure: {}", mode, firstFailure);
+            String rollbackMessage = "Batch rolled back: " + firstFailure;
+            claimedTransferIds.forEach(idempotencyService::release);
+            // Repeats of an applied id in the same batch reported it as already processed; nothing was written either
+            return results.stream()
+                    .map(result -> result.isSuccess() && appliedResults.containsKey(result.getTransferId())
+                            ? TransferResult.failure(result.getTransferId(), rollbackMessage)
+                            : result)
+                    .toList();
+        }
+
+        List<LedgerEntry> entries = new ArrayList<>(accepted.size() * 2);
+        for (TransferRequest transfer : accepted) {
+            Money amount = amounts.get(transfer);
+            Account fromAccount = lockedAccounts.get(transfer.getFromAccountId());
+            Account toAccount = lockedAccounts.get(transfer.getToAccountId());
+            fromAccount.debit(amount);
+            toAccount.credit(amount);
+
+            entries.add(new LedgerEntry(
+                    idGenerator.nextId(),
+                    transfer.getTransferId(),
+                    transfer.getFromAccountId(),
+                    amount.negate(),
+                    EntryType.DEBIT
+            ));
+            entries.add(new LedgerEntry(
+                    idGenerator.nextId(),
+                    transfer.getTransferId(),
+                    transfer.getToAccountId(),
+                    amount,
+                    EntryType.CREDIT
+            ));
+        }
+
+        if (!entries.isEmpty()) {
+            accountRepository.saveAll(lockedAccounts.values());
+            ledgerEntryRepository.saveAll(entries);
+            changeFeedService.record(entries);
+            accepted.forEach(transfer -> transferIdFilter.record(transfer.getTransferId()));
+            accountCache.putAfterCommit(lockedAccounts.values());
+        }
+
+        // Failed transfers give their claim back so a retry can still apply them
+        for (String transferId : claimedTransferIds) {
+            TransferResult applied = appliedResults.get(transferId);
+            if (applied != null) {
+                idempotencyService.complete(applied);
+            } else {
+                idempotencyService.release(transferId);
+            }
+        }
+
+        log.info("Batch completed: {} of {} transfers applied", accepted.size(), transfers.size());
+        return results;
+    }
+
+    /**
+     * Batch path for the sequencer engine: each transfer is sequenced on its own
+     */
+    private List<TransferResult> applySequencedTransfers(List<TransferRequest> transfers, BatchMode mode) {
+        if (mode == BatchMode.ALL_OR_NOTHING) {
+            throw new IllegalArgumentException("All-or-nothing batches are not supported by the sequencer engine");
+        }
+
+        List<TransferResult> results = new ArrayList<>(transfers.size());
+        for (TransferRequest transfer : transfers) {
+            Money amount = toMoney(transfer.getAmount());
+            validateTransferInputs(transfer.getTransferId(), transfer.getFromAccountId(),
+                    transfer.getToAccountId(), amount);
+            try {
+                results.add(sequencerTransferEngine.applyTransfer(transfer.getTransferId(),
+                        transfer.getFromAccountId(), transfer.getToAccountId(), amount));
+            } catch (RuntimeException e) {
+                log.warn("Batch transfer {} failed: {}", transfer.getTransferId(), e.getMessage());
+                results.add(TransferResult.failure(transfer.getTransferId(), e.getMessage()));
+            }
+        }
+        return results;
+    }
+
     @Transactional(readOnly = true)
-    public BigDecimal getAccountBalance(Long accountId) {
+    public Money getAccountBalance(Long accountId) {
         // Verify account exists
         getAccount(accountId);
 
         // Calculate balance from ledger entries
-        return ledgerEntryRepository.calculateAccountBalance(accountId);
+        return balanceCheckpointService.getLedgerBalance(accountId);
     }
 
+    /**
+     * Loads the whole history into memory; use {@link #getAccountHistoryPage} or
+     * {@link #streamAccountHistory} for accounts with long histories
+     */
     @Transactional(readOnly = true)
     public List<LedgerEntry> getAccountHistory(Long accountId) {
+        long started = System.nanoTime();
         // Verify account exists
         getAccount(accountId);
 
-        return ledgerEntryRepository.findByAccountIdOrderByCreatedAtDesc(accountId);
+        List<LedgerEntry> entries = ledgerEntryRepository.findByAccountIdOrderByCreatedAtDesc(accountId);
+        transferMetrics.recordOutcome(Operation.ACCOUNT_HISTORY, Outcome.SUCCESS);
+        transferMetrics.recordOperation(Operation.ACCOUNT_HISTORY, started);
+        return entries;
+    }
+
+    /**
+     * One keyset page of an account's history within a creation-time window, newest first. Pass the previous
+     * page's cursor to continue; a bounded window only reads the ledger partitions it overlaps.
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage getAccountHistoryPage(Long accountId, TimeWindow window, HistoryCursor cursor, int limit) {
+        if (limit < 1 || limit > AccountHistoryResponse.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + AccountHistoryResponse.MAX_PAGE_SIZE);
+        }
+        if (!accountRepository.existsById(accountId)) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<LedgerEntry> entries = cursor == null
+                ? ledgerEntryRepository.findHistoryPage(accountId, window.from(), window.to(), fetchLimit)
+                : ledgerEntryRepository.findHistoryPageBefore(accountId, window.from(), window.to(),
+                        cursor.createdAt(), cursor.id(), fetchLimit);
+
+        if (entries.size() <= limit) {
+            return new HistoryPage(entries, null);
+        }
+        List<LedgerEntry> page = entries.subList(0, limit);
+        return new HistoryPage(page, HistoryCursor.after(page.get(limit - 1)));
+    }
+
+    /**
+     * Hand every entry of an account's history in the window, newest first, to the consumer without holding it in
+     * memory: rows come through a database cursor and each entry is detached once consumed.
+     *
+     * @return the number of entries streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamAccountHistory(Long accountId, TimeWindow window, Consumer<LedgerEntry> consumer) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new IllegalArgumentException("Account not found: " + accountId);
+        }
+
+        long count = 0;
+        try (Stream<LedgerEntry> entries = ledgerEntryRepository.streamHistory(accountId, window.from(), window.to())) {
+            for (Iterator<LedgerEntry> it = entries.iterator(); it.hasNext(); count++) {
+                LedgerEntry entry = it.next();
+                consumer.accept(entry);
+                entityManager.detach(entry);
+            }
+        }
+        return count;
+    }
+
+    public void processTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
+        long started = System.nanoTime();
+        try {
+            doProcessTransfer(transferId, fromAccountId, toAccountId, amount);
+            transferMetrics.recordOutcome(Operation.PROCESS_TRANSFER, Outcome.SUCCESS);
+        } catch (IllegalArgumentException e) {
+            // Rejected input; replays and insufficient funds are counted where they are detected
+            throw e;
+        } catch (RuntimeException e) {
+            transferMetrics.recordOutcome(Operation.PROCESS_TRANSFER, Outcome.ERROR);
+            throw e;
+        } finally {
+            transferMetrics.recordOperation(Operation.PROCESS_TRANSFER, started);
+        }
     }
 
-    public void processTransfer(String transferId, Long fromAccountId, Long toAccountId, BigDecimal amount) {
+    private void doProcessTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
         String correlationId = MDC.get("correlationId");
         log.info("Processing transfer: {} -> {} amount: {} transferId: {} [correlationId={}]",
                 fromAccountId, toAccountId, amount, transferId, correlationId);
 
         // Validate input
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Transfer amount must be positive");
         }
 
@@ -233,10 +857,13 @@ public class LedgerService {
         }
 
         // Check if transfer already processed (idempotency at ledger level)
-        if (ledgerEntryRepository.existsByTransferId(transferId)) {
+        long phaseStarted = System.nanoTime();
+        if (isAlreadyProcessed(transferId)) {
             log.warn("Transfer already processed: {} [correlationId={}]", transferId, correlationId);
+            transferMetrics.recordOutcome(Operation.PROCESS_TRANSFER, Outcome.REPLAY);
             throw new IllegalArgumentException("Transfer already processed: " + transferId);
         }
+        phaseStarted = transferMetrics.recordPhase(Operation.PROCESS_TRANSFER, Phase.IDEMPOTENCY_CHECK, phaseStarted);
 
         // Verify accounts exist and get them with optimistic locking
         Account fromAccount = accountRepository.findByIdWithLock(fromAccountId)
@@ -244,18 +871,21 @@ public class LedgerService {
 
         Account toAccount = accountRepository.findByIdWithLock(toAccountId)
                 .orElseThrow(() -> new IllegalArgumentException("To account not found: " + toAccountId));
+        phaseStarted = transferMetrics.recordPhase(Operation.PROCESS_TRANSFER, Phase.LOCK_ACQUISITION, phaseStarted);
 
         // Check sufficient balance
-        BigDecimal fromAccountBalance = ledgerEntryRepository.calculateAccountBalance(fromAccountId);
-        if (fromAccountBalance.compareTo(amount) < 0) {
+        Money fromAccountBalance = balanceCheckpointService.getLedgerBalance(fromAccountId);
+        if (fromAccountBalance.isLessThan(amount)) {
             log.warn("Insufficient funds: account {} has balance {} but needs {} [correlationId={}]",
                     fromAccountId, fromAccountBalance, amount, correlationId);
+            transferMetrics.recordOutcome(Operation.PROCESS_TRANSFER, Outcome.INSUFFICIENT_FUNDS);
             throw new IllegalArgumentException("Insufficient funds in account: " + fromAccountId);
         }
+        phaseStarted = transferMetrics.recordPhase(Operation.PROCESS_TRANSFER, Phase.BALANCE_MUTATION, phaseStarted);
 
         // Create double-entry bookkeeping entries
         LedgerEntry debitEntry = new LedgerEntry(
-                UUID.randomUUID().toString(),
+                idGenerator.nextId(),
                 transferId,
                 fromAccountId,
                 amount,
@@ -263,7 +893,7 @@ public class LedgerService {
         );
 
         LedgerEntry creditEntry = new LedgerEntry(
-                UUID.randomUUID().toString(),
+                idGenerator.nextId(),
                 transferId,
                 toAccountId,
                 amount,
@@ -273,10 +903,13 @@ public class LedgerService {
         // Save both entries atomically
         ledgerEntryRepository.save(debitEntry);
         ledgerEntryRepository.save(creditEntry);
+        changeFeedService.record(List.of(debitEntry, creditEntry));
+        transferIdFilter.record(transferId);
 
         // Update account versions for optimistic locking
         accountRepository.save(fromAccount);
         accountRepository.save(toAccount);
+        transferMetrics.recordPhase(Operation.PROCESS_TRANSFER, Phase.ENTRY_PERSISTENCE, phaseStarted);
 
         log.info("Transfer processed successfully: {} [correlationId={}]", transferId, correlationId);
     }
@@ -288,13 +921,29 @@ public class LedgerService {
 
     @Transactional(readOnly = true)
     public boolean isTransferBalanced(String transferId) {
-        BigDecimal totalDebits = ledgerEntryRepository.sumAmountByTransferAndType(transferId, EntryType.DEBIT);
-        BigDecimal totalCredits = ledgerEntryRepository.sumAmountByTransferAndType(transferId, EntryType.CREDIT);
+        Money totalDebits = Money.of(ledgerEntryRepository.sumAmountByTransferAndType(transferId, EntryType.DEBIT));
+        Money totalCredits = Money.of(ledgerEntryRepository.sumAmountByTransferAndType(transferId, EntryType.CREDIT));
 
         return totalDebits.compareTo(totalCredits) == 0;
     }
 
-    private void validateTransferInputs(String transferId, Long fromAccountId, Long toAccountId, BigDecimal amount) {
+    /**
+     * Ledger-level idempotency check; the DB probe only runs when the transfer id filter cannot rule the id out
+     */
+    private boolean isAlreadyProcessed(String transferId) {
+        if (transferIdFilter.isDefinitelyNew(transferId)) {
+            return false;
+        }
+        boolean processed = ledgerEntryRepository.existsByTransferId(transferId);
+        transferIdFilter.recordDatabaseProbe(processed);
+        return processed;
+    }
+
+    private Money toMoney(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
+
+    private void validateTransferInputs(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
         if (transferId == null || transferId.trim().isEmpty()) {
             throw new IllegalArgumentException("Transfer ID cannot be null or empty");
         }
@@ -307,8 +956,14 @@ public class LedgerService {
         if (fromAccountId.equals(toAccountId)) {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Transfer amount must be positive");
         }
     }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
 }
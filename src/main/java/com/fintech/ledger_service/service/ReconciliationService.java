@@ -0,0 +1,294 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.ReconciliationConfig;
+import com.fintech.ledger_service.domain.BalanceMismatch;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.ReconciliationReport;
+import com.fintech.ledger_service.entity.ReconciliationRun;
+import com.fintech.ledger_service.repository.AccountRepository;
+import com.fintech.ledger_service.repository.AccountShardRepository;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.repository.ReconciliationRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reconciles stored account balances ({@code accounts.balance}, or the shard buckets of a sharded account)
+ * with the sum of each account's ledger entries.
+ * <p>
+ * The account id space is cut into ranges of {@code ledger.reconciliation.range-size} ids that a fork/join pool
+ * checks in parallel. Each range costs three grouped queries run in one repeatable-read snapshot, so a transfer
+ * committing meanwhile cannot show up as a mismatch. Progress is saved as the lowest account id not yet covered
+ * by a contiguous prefix of finished ranges, and an interrupted run resumes from it.
+ */
+@Service
+public class ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountShardRepository accountShardRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final ReconciliationConfig config;
+    private final TransactionTemplate snapshotTransactionTemplate;
+    private final Counter accountsChecked;
+    private final Counter mismatchesFound;
+    private final Timer rangeTimer;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private volatile ReconciliationReport lastReport;
+
+    public ReconciliationService(AccountRepository accountRepository,
+                                 AccountShardRepository accountShardRepository,
+                                 LedgerEntryRepository ledgerEntryRepository,
+                                 ReconciliationRunRepository reconciliationRunRepository,
+                                 ReconciliationConfig config,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.accountShardRepository = accountShardRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.reconciliationRunRepository = reconciliationRunRepository;
+        this.config = config;
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setReadOnly(true);
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.accountsChecked = Counter.builder("ledger.reconciliation.accounts")
+                .description("Accounts whose stored balance was reconciled with the ledger")
+                .register(meterRegistry);
+        this.mismatchesFound = Counter.builder("ledger.reconciliation.mismatches")
+                .description("Accounts whose stored balance disagreed with the ledger")
+                .register(meterRegistry);
+        this.rangeTimer = Timer.builder("ledger.reconciliation.range.duration")
+                .description("Time to reconcile one account id range")
+                .register(meterRegistry);
+        Gauge.builder("ledger.reconciliation.throughput", this,
+                        service -> service.lastReport != null ? service.lastReport.accountsPerSecond() : 0)
+                .baseUnit("accounts/s").description("Accounts reconciled per second by the last run")
+                .register(meterRegistry);
+    }
+
+    public Optional<ReconciliationReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    @Scheduled(cron = "${ledger.reconciliation.cron:0 0 3 * * *}")
+    public void scheduledReconcile() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        reconcile();
+    }
+
+    /**
+     * Resume the unfinished run, or start a new one over every current account
+     *
+     * @return empty when a run is already in progress
+     */
+    public Optional<ReconciliationReport> reconcile() {
+        if (!runLock.tryLock()) {
+            log.info("Reconciliation already running, skipping");
+            return Optional.empty();
+        }
+        try {
+            ReconciliationRun run = reconciliationRunRepository.findTopByOrderByIdDesc()
+                    .filter(previous -> !previous.isFinished())
+                    .orElseGet(this::newRun);
+            if (run.getNextAccountId() > run.getFromAccountId()) {
+                log.info("Resuming reconciliation run {} from account {}", run.getId(), run.getNextAccountId());
+            }
+
+            long started = System.nanoTime();
+            long checkedBefore = run.getAccountsChecked();
+            Progress progress = new Progress(run);
+            ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+            try {
+                pool.invoke(new RangeTask(progress, 0, progress.ranges));
+            } finally {
+                pool.shutdown();
+            }
+
+            run.setFinishedAt(LocalDateTime.now());
+            reconciliationRunRepository.save(run);
+
+            double seconds = Math.max((System.nanoTime() - started) / 1e9, 1e-3);
+            ReconciliationReport report = new ReconciliationReport(run.getId(), run.getStartedAt(),
+                    run.getFinishedAt(), run.getAccountsChecked(), run.getMismatches(),
+                    Collections.unmodifiableList(progress.reported),
+                    (run.getAccountsChecked() - checkedBefore) / seconds);
+            lastReport = report;
+            log.info("Reconciliation run {} checked {} accounts, {} mismatches, at {} accounts/s",
+                    run.getId(), run.getAccountsChecked(), run.getMismatches(), Math.round(report.accountsPerSecond()));
+            return Optional.of(report);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private ReconciliationRun newRun() {
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        // Accounts created after this point are left to the next run
+        ReconciliationRun run = minId != null
+                ? new ReconciliationRun(minId, maxId + 1)
+                : new ReconciliationRun(0L, 0L);
+        reconciliationRunRepository.save(run);
+        return run;
+    }
+
+    /**
+     * Compare one id range in a single snapshot
+     */
+    private List<BalanceMismatch> checkRange(long from, long to, long[] checked) {
+        return snapshotTransactionTemplate.execute(status -> {
+            Map<Long, Money> stored = new HashMap<>();
+            for (Object[] row : accountRepository.findBalancesInRange(from, to)) {
+                stored.put((Long) row[0], (Money) row[1]);
+            }
+            for (Object[] row : accountShardRepository.sumBalancesInRange(from, to)) {
+                stored.merge((Long) row[0], toMoney(row[1]), Money::plus);
+            }
+            Map<Long, Money> ledger = new HashMap<>();
+            for (Object[] row : ledgerEntryRepository.sumAccountBalancesInRange(from, to)) {
+                ledger.put((Long) row[0], toMoney(row[1]));
+            }
+
+            List<BalanceMismatch> mismatches = new ArrayList<>();
+            stored.forEach((accountId, balance) -> {
+                Money ledgerBalance = ledger.getOrDefault(accountId, Money.ZERO);
+                if (!balance.equals(ledgerBalance)) {
+                    mismatches.add(new BalanceMismatch(accountId, balance, ledgerBalance));
+                }
+            });
+            ledger.forEach((accountId, ledgerBalance) -> {
+                if (!stored.containsKey(accountId)) {
+                    mismatches.add(new BalanceMismatch(accountId, null, ledgerBalance));
+                }
+            });
+            checked[0] = stored.size();
+            return mismatches;
+        });
+    }
+
+    private static Money toMoney(Object sum) {
+        return sum instanceof Money money ? money : Money.of((BigDecimal) sum);
+    }
+
+    /**
+     * Results of finished ranges; the run's resume point advances over the contiguous prefix of them
+     */
+    private final class Progress {
+        private final ReconciliationRun run;
+        private final long from;
+        private final int ranges;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Guarded by lock
+        private final TreeMap<Integer, long[]> finished = new TreeMap<>();
+        private final List<BalanceMismatch> reported = new ArrayList<>();
+        private int nextRange;
+
+        private Progress(ReconciliationRun run) {
+            this.run = run;
+            this.from = run.getNextAccountId();
+            this.ranges = (int) Math.ceilDiv(run.getUpToAccountId() - from, (long) config.getRangeSize());
+        }
+
+        private long rangeStart(int range) {
+            return Math.min(from + (long) range * config.getRangeSize(), run.getUpToAccountId());
+        }
+
+        private void check(int range) {
+            long rangeFrom = rangeStart(range);
+            long rangeTo = rangeStart(range + 1);
+            long[] checked = new long[1];
+            List<BalanceMismatch> mismatches = rangeTimer.record(() -> checkRange(rangeFrom, rangeTo, checked));
+            for (BalanceMismatch mismatch : mismatches) {
+                log.error("Account {} stored balance {} disagrees with ledger balance {}",
+                        mismatch.accountId(), mismatch.storedBalance(), mismatch.ledgerBalance());
+            }
+            accountsChecked.increment(checked[0]);
+            mismatchesFound.increment(mismatches.size());
+
+            lock.lock();
+            try {
+                for (BalanceMismatch mismatch : mismatches) {
+                    if (reported.size() < config.getMaxReportedMismatches()) {
+                        reported.add(mismatch);
+                    }
+                }
+                finished.put(range, new long[]{checked[0], mismatches.size()});
+                advance();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Called with the lock held
+        private void advance() {
+            int advancedTo = nextRange;
+            while (finished.containsKey(advancedTo)) {
+                long[] counts = finished.remove(advancedTo);
+                run.setAccountsChecked(run.getAccountsChecked() + counts[0]);
+                run.setMismatches(run.getMismatches() + counts[1]);
+                advancedTo++;
+            }
+            if (advancedTo == nextRange) {
+                return;
+            }
+            nextRange = advancedTo;
+            run.setNextAccountId(rangeStart(advancedTo));
+            reconciliationRunRepository.save(run);
+        }
+    }
+
+    /**
+     * Splits a span of ranges in half until a single range is left to check
+     */
+    private static final class RangeTask extends RecursiveAction {
+        private final Progress progress;
+        private final int fromRange;
+        private final int toRange;
+
+        private RangeTask(Progress progress, int fromRange, int toRange) {
+            this.progress = progress;
+            this.fromRange = fromRange;
+            this.toRange = toRange;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRange - fromRange <= 1) {
+                if (toRange > fromRange) {
+                    progress.check(fromRange);
+                }
+                return;
+            }
+            int middle = (fromRange + toRange) >>> 1;
+            invokeAll(new RangeTask(progress, fromRange, middle), new RangeTask(progress, middle, toRange));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.ReplicaConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Polls the read replica's replication lag and decides whether read-only transactions may use it.
+ * <p>
+ * The replica counts as unusable until the first check succeeds, whenever a check fails, and while it lags
+ * further behind than {@code ledger.replica.max-lag}; reads then go to the primary. Created by
+ * {@link com.fintech.ledger_service.config.ReplicaDataSourceConfig} only when replica routing is enabled.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final ReplicaConfig config;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaConfig config, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.config = config;
+
+        Gauge.builder("ledger.replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .baseUnit("seconds").description("Replication lag of the read replica; NaN when unknown")
+                .register(meterRegistry);
+        Gauge.builder("ledger.replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica, 0 while they fall back to the primary")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.replica.lag-check-interval:PT1S}")
+    public void checkLag() {
+        boolean wasUsable = usable;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(config.getLagQuery(), Double.class);
+            lagSeconds = lag == null ? Double.NaN : lag;
+            usable = lag != null && lag * 1000 <= config.getMaxLag().toMillis();
+            if (wasUsable && !usable) {
+                log.warn("Read replica is {}s behind (max {}); reading from the primary", lagSeconds, config.getMaxLag());
+            } else if (!wasUsable && usable) {
+                log.info("Read replica is {}s behind; routing read-only transactions to it", lagSeconds);
+            }
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                log.warn("Read replica lag check failed; reading from the primary: {}", e.getMessage());
+            }
+        }
+    }
+}
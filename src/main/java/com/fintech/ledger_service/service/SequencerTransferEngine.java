@@ -0,0 +1,441 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.DatabaseConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.config.SequencerConfig;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.data.TransferEngineType;
+import com.fintech.ledger_service.domain.JournalRecord;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.repository.AccountRepository;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.util.IdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory single-writer transfer engine, selected with {@code ledger.engine: SEQUENCER}.
+ * <p>
+ * Accounts are partitioned by id across a fixed set of single-threaded sequencers, each owning the
+ * authoritative balances of its accounts, so funds are checked without any database lock. The debit runs on
+ * the source account's sequencer and the credit is then applied on the destination's. Accepted transfers are
+ * handed to an asynchronous persistence stage that writes their ledger entries and net account balance
+ * changes in batched transactions. Balances are rebuilt from {@code ledger_entries} on startup.
+ * <p>
+ * Unless {@code ledger.sequencer.await-persistence} is set, a transfer is acknowledged before it is in the
+ * database. With {@code ledger.journal.enabled} that acknowledgement waits for the transfer to be fsynced to the
+ * {@link TransferJournal} instead, and journaled transfers missing from the database are replayed on startup;
+ * without it an acknowledged transfer can be lost in a crash. A timed-out call has an unknown outcome; retrying
+ * it with the same transfer id is safe.
+ * <p>
+ * Every database read here goes to the primary: a replica that has not caught up with a transfer would let its
+ * retry through, or rebuild balances without it.
+ */
+@Service
+public class SequencerTransferEngine implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SequencerTransferEngine.class);
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final DatabaseConfig databaseConfig;
+    private final SequencerConfig sequencerConfig;
+    private final TransferIdFilter transferIdFilter;
+    private final IdGenerator idGenerator;
+    private final TransferJournal transferJournal;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private Partition[] partitions;
+    private BlockingQueue<PendingTransfer> persistenceQueue;
+    private Thread persister;
+    private volatile boolean running;
+    private volatile boolean persisting;
+
+    public SequencerTransferEngine(AccountRepository accountRepository,
+                                   LedgerEntryRepository ledgerEntryRepository,
+                                   DatabaseConfig databaseConfig,
+                                   SequencerConfig sequencerConfig,
+                                   TransferIdFilter transferIdFilter,
+                                   IdGenerator idGenerator,
+                                   TransferJournal transferJournal,
+                                   ChangeFeedService changeFeedService,
+                                   PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.databaseConfig = databaseConfig;
+        this.sequencerConfig = sequencerConfig;
+        this.transferIdFilter = transferIdFilter;
+        this.idGenerator = idGenerator;
+        this.transferJournal = transferJournal;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public boolean isEnabled() {
+        return databaseConfig.getEngine() == TransferEngineType.SEQUENCER;
+    }
+
+    /**
+     * Sequence a transfer; same contract as {@link LedgerService#applyTransfer}
+     */
+    public TransferResult applyTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
+        if (!running) {
+            throw new IllegalStateException("Sequencer engine is not running");
+        }
+
+        Partition source = partitionFor(fromAccountId);
+        Partition target = partitionFor(toAccountId);
+        CompletableFuture<TransferResult> result = new CompletableFuture<>();
+        source.execute(result, () -> debit(source, target, transferId, fromAccountId, toAccountId, amount, result));
+
+        try {
+            return result.get(sequencerConfig.getTransferTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Sequenced transfer failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Transfer " + transferId + " timed out in sequencer", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer " + transferId, e);
+        }
+    }
+
+    /**
+     * Current in-memory balance, if the account has been loaded by its sequencer
+     */
+    public Optional<Money> currentBalance(Long accountId) {
+        if (!running) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(partitionFor(accountId).balances.get(accountId));
+    }
+
+    // Runs on the source account's sequencer
+    private void debit(Partition source, Partition target, String transferId, Long fromAccountId, Long toAccountId,
+                       Money amount, CompletableFuture<TransferResult> result) {
+        if (source.pendingTransferIds.contains(transferId) || isPersisted(transferId)) {
+            log.info("Transfer {} already processed, returning existing result", transferId);
+            result.complete(TransferResult.alreadyProcessed(transferId,
+                    source.balances.get(fromAccountId), target.balances.get(toAccountId)));
+            return;
+        }
+
+        Money fromBalance = source.balance(fromAccountId, "From");
+        if (!target.balances.containsKey(toAccountId) && !accountRepository.existsById(toAccountId)) {
+            throw new IllegalArgumentException("To account not found: " + toAccountId);
+        }
+
+        if (fromBalance.isLessThan(amount)) {
+            log.warn("Transfer {} failed due to insufficient funds", transferId);
+            result.complete(TransferResult.failure(transferId,
+                    "Insufficient funds. Current balance: " + fromBalance + ", requested: " + amount));
+            return;
+        }
+
+        // Journaled before any balance moves, so a failed append leaves nothing to undo
+        TransferJournal.Appended journaled = transferJournal.isEnabled()
+                ? transferJournal.append(transferId, fromAccountId, toAccountId, amount)
+                : null;
+
+        Money fromBalanceAfter = fromBalance.minus(amount);
+        source.balances.put(fromAccountId, fromBalanceAfter);
+        source.pendingTransferIds.add(transferId);
+
+        target.execute(result, () -> credit(source, target, transferId, fromAccountId, toAccountId, amount,
+                fromBalanceAfter, journaled, result));
+    }
+
+    private boolean isPersisted(String transferId) {
+        if (transferIdFilter.isDefinitelyNew(transferId)) {
+            return false;
+        }
+        boolean persisted = ledgerEntryRepository.existsByTransferId(transferId);
+        transferIdFilter.recordDatabaseProbe(persisted);
+        return persisted;
+    }
+
+    // Runs on the destination account's sequencer
+    private void credit(Partition source, Partition target, String transferId, Long fromAccountId, Long toAccountId,
+                        Money amount, Money fromBalanceAfter, TransferJournal.Appended journaled,
+                        CompletableFuture<TransferResult> result) throws InterruptedException {
+        Money toBalanceAfter = target.balance(toAccountId, "To").plus(amount);
+        target.balances.put(toAccountId, toBalanceAfter);
+
+        TransferResult success = TransferResult.success(transferId, fromBalanceAfter, toBalanceAfter);
+        boolean awaitPersistence = sequencerConfig.isAwaitPersistence();
+
+        // Blocks the sequencer when persistence falls behind, which is the intended backpressure
+        persistenceQueue.put(new PendingTransfer(transferId, fromAccountId, toAccountId, amount, source,
+                journaled != null ? journaled.sequence() : 0, awaitPersistence ? result : null, success));
+
+        if (!awaitPersistence) {
+            if (journaled != null) {
+                // Completed by the journal flusher, so the sequencer moves on without waiting for the fsync
+                journaled.durable().whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                    } else {
+                        result.complete(success);
+                    }
+                });
+            } else {
+                result.complete(success);
+            }
+        }
+    }
+
+    private void runPersistence() {
+        int batchSize = sequencerConfig.getPersistenceBatchSize();
+        List<PendingTransfer> batch = new ArrayList<>(batchSize);
+        while (persisting || !persistenceQueue.isEmpty()) {
+            try {
+                PendingTransfer first = persistenceQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                persistenceQueue.drainTo(batch, batchSize - 1);
+                persistWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Sequencer persistence interrupted with {} transfers queued", persistenceQueue.size());
+                return;
+            }
+        }
+    }
+
+    private void persistWithRetry(List<PendingTransfer> batch) throws InterruptedException {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(batch));
+                break;
+            } catch (RuntimeException e) {
+                log.error("Failed to persist {} sequenced transfers, retrying in {} ms",
+                        batch.size(), sequencerConfig.getPersistenceRetryBackoffMs(), e);
+                Thread.sleep(sequencerConfig.getPersistenceRetryBackoffMs());
+            }
+        }
+
+        for (PendingTransfer transfer : batch) {
+            transfer.source().pendingTransferIds.remove(transfer.transferId());
+            if (transfer.journalSequence() > 0) {
+                transferJournal.markApplied(transfer.journalSequence());
+            }
+            if (transfer.acknowledgement() != null) {
+                transfer.acknowledgement().complete(transfer.result());
+            }
+        }
+    }
+
+    private void persist(List<PendingTransfer> batch) {
+        List<LedgerEntry> entries = new ArrayList<>(batch.size() * 2);
+        // Net change per account, applied in id order like the locking engine
+        Map<Long, Money> deltas = new TreeMap<>();
+
+        for (PendingTransfer transfer : batch) {
+            entries.add(new LedgerEntry(idGenerator.nextId(), transfer.transferId(),
+                    transfer.fromAccountId(), transfer.amount().negate(), EntryType.DEBIT));
+            entries.add(new LedgerEntry(idGenerator.nextId(), transfer.transferId(),
+                    transfer.toAccountId(), transfer.amount(), EntryType.CREDIT));
+            deltas.merge(transfer.fromAccountId(), transfer.amount().negate(), Money::plus);
+            deltas.merge(transfer.toAccountId(), transfer.amount(), Money::plus);
+        }
+
+        ledgerEntryRepository.saveAll(entries);
+        changeFeedService.record(entries);
+        batch.forEach(transfer -> transferIdFilter.record(transfer.transferId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                accountRepository.applyBalanceDelta(accountId, delta, now);
+            }
+        });
+    }
+
+    /**
+     * Apply journaled transfers that did not reach the database before the last shutdown or crash
+     */
+    private void replayJournal() {
+        List<JournalRecord> records = transferJournal.open();
+        int batchSize = sequencerConfig.getPersistenceBatchSize();
+        int replayed = 0;
+        for (int from = 0; from < records.size(); from += batchSize) {
+            List<JournalRecord> chunk = records.subList(from, Math.min(from + batchSize, records.size()));
+            Set<String> transferIds = chunk.stream().map(JournalRecord::transferId).collect(Collectors.toSet());
+            replayed += transactionTemplate.execute(status -> {
+                Set<String> applied = new HashSet<>(ledgerEntryRepository.findExistingTransferIds(transferIds));
+                List<PendingTransfer> missing = chunk.stream()
+                        .filter(record -> !applied.contains(record.transferId()))
+                        .map(record -> new PendingTransfer(record.transferId(), record.fromAccountId(),
+                                record.toAccountId(), record.amount(), null, 0, null, null))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    persist(missing);
+                }
+                return missing.size();
+            });
+        }
+        transferJournal.recovered();
+        log.info("Replayed {} of {} journaled transfers", replayed, records.size());
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        int[] accounts = {0};
+        ReplicaRoutingDataSource.onPrimary(() -> readOnlyTransactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = ledgerEntryRepository.streamAccountBalances()) {
+                rows.forEach(row -> {
+                    Long accountId = (Long) row[0];
+                    partitionFor(accountId).balances.put(accountId, Money.of((BigDecimal) row[1]));
+                    accounts[0]++;
+                });
+            }
+            return null;
+        }));
+        log.info("Sequencer rebuilt {} account balances from ledger_entries in {} ms",
+                accounts[0], System.currentTimeMillis() - started);
+    }
+
+    private Partition partitionFor(Long accountId) {
+        return partitions[(int) Math.floorMod(accountId, (long) partitions.length)];
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        partitions = new Partition[sequencerConfig.getPartitions()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i);
+        }
+        persistenceQueue = new LinkedBlockingQueue<>(sequencerConfig.getPersistenceQueueCapacity());
+
+        if (transferJournal.isEnabled()) {
+            replayJournal();
+        }
+        rebuild();
+
+        persisting = true;
+        persister = Thread.ofPlatform().name("ledger-sequencer-persister").start(this::runPersistence);
+        running = true;
+        log.info("Sequencer engine started with {} partitions", partitions.length);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Partition partition : partitions) {
+            partition.executor.shutdown();
+        }
+        try {
+            for (Partition partition : partitions) {
+                partition.executor.awaitTermination(sequencerConfig.getTransferTimeoutMs(), TimeUnit.MILLISECONDS);
+            }
+            // Drain everything already accepted before the datasource goes away
+            persisting = false;
+            persister.join();
+            transferJournal.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Sequencer engine stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before, and stop after, the embedded web server
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private final class Partition {
+        private final ExecutorService executor;
+        private final Map<Long, Money> balances = new ConcurrentHashMap<>();
+        private final Set<String> pendingTransferIds = ConcurrentHashMap.newKeySet();
+
+        private Partition(int index) {
+            this.executor = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("ledger-sequencer-" + index).factory());
+        }
+
+        void execute(CompletableFuture<TransferResult> result, ThrowingTask task) {
+            // The duplicate check and account lookups run outside any transaction, where Spring Data's own
+            // read-only one would otherwise pick the replica
+            executor.execute(() -> ReplicaRoutingDataSource.onPrimary(() -> {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+                return null;
+            }));
+        }
+
+        /**
+         * Owned balance, loaded from the account row the first time an account created after startup is seen
+         */
+        Money balance(Long accountId, String side) {
+            Money balance = balances.get(accountId);
+            if (balance == null) {
+                balance = accountRepository.findById(accountId)
+                        .map(Account::getBalance)
+                        .orElseThrow(() -> new IllegalArgumentException(side + " account not found: " + accountId));
+                balances.put(accountId, balance);
+            }
+            return balance;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingTask {
+        void run() throws Exception;
+    }
+
+    private record PendingTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount,
+                                   Partition source, long journalSequence,
+                                   CompletableFuture<TransferResult> acknowledgement, TransferResult result) {
+    }
+}
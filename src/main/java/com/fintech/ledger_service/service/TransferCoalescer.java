@@ -0,0 +1,262 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.GroupCommitConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.exception.ShardSweepRequiredException;
+import com.fintech.ledger_service.service.TransferMetrics.Operation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit in front of {@link LedgerService#applyTransfer}, enabled with {@code ledger.group-commit.enabled}.
+ * <p>
+ * Concurrent transfers are queued and a single committer thread applies them in shared transactions: the first
+ * transfer of a batch waits up to {@code ledger.group-commit.window} for others to join it, up to
+ * {@code ledger.group-commit.max-batch-size}, so a whole batch pays for one commit. Each transfer runs under its
+ * own JDBC savepoint, so one that fails is rolled back alone and only its caller sees the failure. Callers get
+ * their results once the batch has committed.
+ * <p>
+ * A database error leaves the shared transaction unable to commit even after rolling back to the savepoint, so
+ * such a batch is rolled back as a whole and its callers apply their transfers on their own instead; so is a
+ * transfer that loses an optimistic race, which then gets the usual retries, or that finds its shard bucket
+ * drained, whose bucket lock only a full rollback releases. The same fallback covers a shared commit that fails,
+ * a caller that waits longer than {@code ledger.group-commit.commit-timeout} past the window, and transfers
+ * still queued when the committer thread exits.
+ */
+@Service
+public class TransferCoalescer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferCoalescer.class);
+
+    private final LedgerService ledgerService;
+    private final SequencerTransferEngine sequencerTransferEngine;
+    private final GroupCommitConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferMetrics transferMetrics;
+    private final DistributionSummary batchSizes;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private BlockingQueue<PendingTransfer> queue;
+    private Thread committer;
+    private volatile boolean running;
+    private volatile boolean committing;
+
+    public TransferCoalescer(LedgerService ledgerService,
+                             SequencerTransferEngine sequencerTransferEngine,
+                             GroupCommitConfig config,
+                             PlatformTransactionManager transactionManager,
+                             TransferMetrics transferMetrics,
+                             MeterRegistry meterRegistry) {
+        this.ledgerService = ledgerService;
+        this.sequencerTransferEngine = sequencerTransferEngine;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transferMetrics = transferMetrics;
+        this.batchSizes = DistributionSummary.builder("ledger.group.commit.batch.size")
+                .description("Transfers committed together in one group commit transaction")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        // The sequencer engine already batches its own persistence
+        return config.isEnabled() && !sequencerTransferEngine.isEnabled();
+    }
+
+    /**
+     * Apply a transfer as part of the next group commit; same contract as {@link LedgerService#applyTransfer},
+     * which it falls back to when group commit is off
+     */
+    public TransferResult applyTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
+        if (!running) {
+            return ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, amount);
+        }
+
+        long started = System.nanoTime();
+        PendingTransfer transfer = new PendingTransfer(transferId, fromAccountId, toAccountId, amount,
+                new CompletableFuture<>());
+        try {
+            queue.put(transfer);
+            if (!running && queue.remove(transfer)) {
+                // The committer has stopped and may already have drained the queue for the last time
+                return ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, amount);
+            }
+            TransferResult result = transfer.result().get(
+                    config.getWindow().plus(config.getCommitTimeout()).toNanos(), TimeUnit.NANOSECONDS);
+            if (result == null) {
+                // Could not be committed with its batch
+                return ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, amount);
+            }
+            transferMetrics.recordOperation(Operation.APPLY_TRANSFER, started);
+            return result;
+        } catch (TimeoutException e) {
+            log.warn("Transfer {} not group committed in time, applying it on its own", transferId);
+            queue.remove(transfer);
+            return ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, amount);
+        } catch (ExecutionException e) {
+            transferMetrics.recordOperation(Operation.APPLY_TRANSFER, started);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group committed transfer failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer " + transferId, e);
+        }
+    }
+
+    private void runCommitter() {
+        int maxBatchSize = config.getMaxBatchSize();
+        long windowNanos = config.getWindow().toNanos();
+        List<PendingTransfer> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (committing || !queue.isEmpty()) {
+                PendingTransfer first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Hold the batch open for the window, or until it is full
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            log.error("Group committer failed, transfers are applied on their own from now on", e);
+        } finally {
+            running = false;
+            // Whatever is still queued, or was taken but not completed, falls back to a standalone transfer;
+            // callers that enqueue after this drain see running == false and take themselves back out
+            queue.drainTo(batch);
+            batch.forEach(transfer -> transfer.result().complete(null));
+        }
+    }
+
+    /**
+     * Apply the batch in one transaction and complete every caller's future: with its result once committed,
+     * exceptionally if its own transfer failed, or with {@code null} to have the caller apply it on its own
+     */
+    private void commit(List<PendingTransfer> batch) {
+        batchSizes.record(batch.size());
+        Map<PendingTransfer, TransferResult> results = new IdentityHashMap<>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                for (PendingTransfer transfer : batch) {
+                    Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+                    try {
+                        results.put(transfer, ledgerService.applyTransferInCurrentTransaction(transfer.transferId(),
+                                transfer.fromAccountId(), transfer.toAccountId(), transfer.amount()));
+                        session.doWork(connection -> connection.releaseSavepoint(savepoint));
+                    } catch (RuntimeException e) {
+                        session.doWork(connection -> connection.rollback(savepoint));
+                        // Entities touched by the undone statements no longer match their rows
+                        entityManager.clear();
+                        if (status.isRollbackOnly() || e instanceof ShardSweepRequiredException) {
+                            throw new PoisonedBatchException(e);
+                        }
+                        transfer.result().completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (PoisonedBatchException e) {
+            log.warn("Group commit of {} transfers rolled back after a database error, applying them individually",
+                    batch.size(), e.getCause());
+            // Transfers that already failed on their own keep their failure
+            batch.forEach(transfer -> transfer.result().complete(null));
+            return;
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} transfers failed, applying them individually", batch.size(), e);
+            batch.forEach(transfer -> transfer.result().complete(null));
+            return;
+        }
+        results.forEach((transfer, result) -> transfer.result().complete(result));
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(config.getQueueCapacity());
+        committing = true;
+        committer = Thread.ofPlatform().name("ledger-group-committer").start(this::runCommitter);
+        running = true;
+        log.info("Group commit started with a {} window and batches of up to {}", config.getWindow(),
+                config.getMaxBatchSize());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // Commit everything already queued before the datasource goes away
+        committing = false;
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Group commit stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before, and stop after, the embedded web server
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private record PendingTransfer(String transferId, Long fromAccountId, Long toAccountId, Money amount,
+                           CompletableFuture<TransferResult> result) {
+    }
+
+    private static final class PoisonedBatchException extends RuntimeException {
+        private PoisonedBatchException(RuntimeException cause) {
+            super(cause);
+        }
+    }
+}
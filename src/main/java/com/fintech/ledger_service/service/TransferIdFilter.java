@@ -0,0 +1,194 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.IdempotencyFilterConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Rotating Bloom filter of recently seen transfer ids, consulted before the
+ * {@code existsByTransferId} database probe.
+ * <p>
+ * A negative answer means the id was never seen by this instance within the retention window (one to two
+ * rotation intervals), so the probe is skipped. The filter is seeded from {@code ledger_entries} on the
+ * primary at startup and answers "maybe seen" until seeding completes. It only sees this instance's traffic,
+ * so enable it only when a single instance accepts writes, and keep the rotation interval above the upstream
+ * retry horizon.
+ */
+@Service
+public class TransferIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferIdFilter.class);
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final IdempotencyFilterConfig config;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Counter definitelyNew;
+    private final Counter maybeSeen;
+    private final Counter falsePositives;
+    private final Counter confirmedDuplicates;
+    private final AtomicLong seededIds = new AtomicLong();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile boolean ready;
+
+    public TransferIdFilter(LedgerEntryRepository ledgerEntryRepository,
+                            IdempotencyFilterConfig config,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.config = config;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+
+        this.definitelyNew = Counter.builder("ledger.idempotency.filter.checks")
+                .tag("result", "new").description("Transfer id filter checks by outcome")
+                .register(meterRegistry);
+        this.maybeSeen = Counter.builder("ledger.idempotency.filter.checks")
+                .tag("result", "maybe-seen").description("Transfer id filter checks by outcome")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("ledger.idempotency.filter.probes")
+                .tag("result", "false-positive").description("Database probes after a maybe-seen check, by outcome")
+                .register(meterRegistry);
+        this.confirmedDuplicates = Counter.builder("ledger.idempotency.filter.probes")
+                .tag("result", "duplicate").description("Database probes after a maybe-seen check, by outcome")
+                .register(meterRegistry);
+
+        Gauge.builder("ledger.idempotency.filter.false.positive.rate", this, TransferIdFilter::getFalsePositiveRate)
+                .description("Observed share of new transfer ids the filter reported as maybe seen")
+                .register(meterRegistry);
+        Gauge.builder("ledger.idempotency.filter.memory", this, TransferIdFilter::getMemoryBytes)
+                .baseUnit("bytes").description("Memory held by the current and previous filter generations")
+                .register(meterRegistry);
+        Gauge.builder("ledger.idempotency.filter.fill.ratio", this, TransferIdFilter::getFillRatio)
+                .description("Fraction of bits set in the current generation")
+                .register(meterRegistry);
+
+        if (config.isEnabled()) {
+            this.current = newGeneration();
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Whether a transfer id is definitely new, in which case the database idempotency probe can be skipped.
+     * Always false while disabled or still seeding. Does not add the id: a transfer that fails or rolls back
+     * must not leave it behind, so ids are added by {@link #record} once their entries are written.
+     */
+    public boolean isDefinitelyNew(String transferId) {
+        if (!config.isEnabled() || !ready) {
+            return false;
+        }
+
+        BloomFilter older = previous;
+        boolean seen = current.mightContain(transferId) || (older != null && older.mightContain(transferId));
+        (seen ? maybeSeen : definitelyNew).increment();
+        return !seen;
+    }
+
+    /**
+     * Record a transfer id whose ledger entries are being written. Without it, a retry of that id would be
+     * "definitely new".
+     */
+    public void record(String transferId) {
+        if (config.isEnabled()) {
+            current.put(transferId);
+        }
+    }
+
+    /**
+     * Whether seeding has completed, so that checks can answer "definitely new"
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Feed back the outcome of a database probe the filter could not rule out
+     */
+    public void recordDatabaseProbe(boolean found) {
+        if (config.isEnabled() && ready) {
+            (found ? confirmedDuplicates : falsePositives).increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Thread.ofPlatform().name("ledger-transfer-id-filter-seed").start(() -> {
+            long started = System.currentTimeMillis();
+            LocalDateTime since = LocalDateTime.now().minus(config.getRotationInterval().multipliedBy(2));
+            try {
+                // A lagging replica would miss the newest ids, and their retries would be "definitely new"
+                ReplicaRoutingDataSource.onPrimary(() -> readOnlyTransactionTemplate.execute(status -> {
+                    try (Stream<String> transferIds = ledgerEntryRepository.streamTransferIdsSince(since)) {
+                        transferIds.forEach(transferId -> {
+                            current.put(transferId);
+                            seededIds.incrementAndGet();
+                        });
+                    }
+                    return null;
+                }));
+                ready = true;
+                log.info("Transfer id filter seeded with {} ids since {} in {} ms",
+                        seededIds.get(), since, System.currentTimeMillis() - started);
+            } catch (RuntimeException e) {
+                log.error("Failed to seed transfer id filter; every check falls back to the database", e);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.idempotency-filter.rotation-interval:PT24H}",
+            initialDelayString = "${ledger.idempotency-filter.rotation-interval:PT24H}")
+    public void rotate() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        previous = current;
+        current = newGeneration();
+        log.info("Transfer id filter rotated; ids older than two generations are no longer tracked");
+    }
+
+    public double getFalsePositiveRate() {
+        double positives = falsePositives.count();
+        double negatives = definitelyNew.count();
+        return positives + negatives == 0 ? 0 : positives / (positives + negatives);
+    }
+
+    public long getMemoryBytes() {
+        BloomFilter generation = current;
+        BloomFilter older = previous;
+        return (generation != null ? generation.getMemoryBytes() : 0) + (older != null ? older.getMemoryBytes() : 0);
+    }
+
+    public double getFillRatio() {
+        BloomFilter generation = current;
+        return generation != null ? generation.getFillRatio() : 0;
+    }
+
+    private BloomFilter newGeneration() {
+        return new BloomFilter(config.getExpectedInsertions(), config.getFalsePositiveProbability());
+    }
+}
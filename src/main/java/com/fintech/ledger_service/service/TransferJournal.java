@@ -0,0 +1,346 @@
+package com.fintech.ledger_service.service;
+
+import com.fintech.ledger_service.config.JournalConfig;
+import com.fintech.ledger_service.domain.JournalRecord;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.util.JournalFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only write-ahead journal of transfers accepted by the {@link SequencerTransferEngine}, enabled with
+ * {@code ledger.journal.enabled}.
+ * <p>
+ * Records are copied into a memory-mapped, pre-sized segment file (see {@link JournalFormat}) and a new segment
+ * is started when one fills up. A single flusher thread forces the written range to disk and completes every
+ * append it covered, so concurrent transfers share one fsync. A segment is deleted once it is full and every
+ * transfer in it has been applied to the database; whatever is left on startup is handed back by
+ * {@link #open()} for replay.
+ */
+@Component
+public class TransferJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferJournal.class);
+
+    private final JournalConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // Guarded by lock
+    private final NavigableMap<Long, Segment> segments = new TreeMap<>();
+    private final Deque<Appended> awaitingFlush = new ArrayDeque<>();
+    private final List<Path> recoveredSegments = new ArrayList<>();
+    private Segment current;
+    private long lastSequence;
+
+    private Thread flusher;
+    private volatile boolean flushing;
+
+    public TransferJournal(JournalConfig config) {
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Open the journal directory and read back every record left in it, oldest first. Once they are all in the
+     * database, call {@link #recovered()} to discard them and start appending.
+     */
+    public List<JournalRecord> open() {
+        Path directory = Path.of(config.getDirectory());
+        List<JournalRecord> records = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            for (Path path : JournalFormat.listSegments(directory)) {
+                JournalFormat.Segment contents = JournalFormat.readSegment(path);
+                if (contents.problem() != null) {
+                    // Only the unacknowledged tail of the newest segment is expected here, after a crash
+                    log.warn("Journal segment {} read up to offset {}: {}", path, contents.end(), contents.problem());
+                }
+                records.addAll(contents.records());
+                recoveredSegments.add(path);
+                lastSequence = Math.max(lastSequence, JournalFormat.firstSequenceOf(path) - 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read transfer journal in " + directory, e);
+        }
+        if (!records.isEmpty()) {
+            lastSequence = Math.max(lastSequence, records.getLast().sequence());
+        }
+        return records;
+    }
+
+    /**
+     * Delete the segments read by {@link #open()} and start a fresh one
+     */
+    public void recovered() {
+        lock.lock();
+        try {
+            for (Path path : recoveredSegments) {
+                delete(path);
+            }
+            recoveredSegments.clear();
+            current = createSegment(lastSequence + 1);
+            segments.put(current.firstSequence, current);
+        } finally {
+            lock.unlock();
+        }
+
+        flushing = true;
+        flusher = Thread.ofPlatform().name("ledger-journal-flusher").start(this::runFlusher);
+        log.info("Transfer journal open in {} with {} segments", config.getDirectory(), config.getSegmentSize());
+    }
+
+    /**
+     * Append a transfer. Its {@link Appended#durable()} future completes, on the flusher thread, once the record
+     * has been forced to disk.
+     */
+    public Appended append(String transferId, Long fromAccountId, Long toAccountId, Money amount) {
+        lock.lock();
+        try {
+            long sequence = lastSequence + 1;
+            byte[] record = JournalFormat.encode(new JournalRecord(sequence, Instant.now(), transferId,
+                    fromAccountId, toAccountId, amount));
+            if (current.writeOffset + record.length > current.buffer.capacity()) {
+                rotate(sequence, record.length);
+            }
+
+            current.buffer.put(current.writeOffset, record);
+            current.writeOffset += record.length;
+            current.unapplied++;
+            lastSequence = sequence;
+
+            Appended entry = new Appended(sequence, new CompletableFuture<>());
+            awaitingFlush.addLast(entry);
+            appended.signal();
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Note that the journaled transfer is in the database, so its segment can go once nothing else in it is pending
+     */
+    public void markApplied(long sequence) {
+        lock.lock();
+        try {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(sequence);
+            if (entry == null) {
+                return;
+            }
+            Segment segment = entry.getValue();
+            segment.unapplied--;
+            if (segment.sealed && segment.unapplied == 0) {
+                segments.remove(segment.firstSequence);
+                delete(segment.path);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flush whatever is pending and stop; the current segment is kept only if it holds unapplied transfers
+     */
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            flushing = false;
+            appended.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        lock.lock();
+        try {
+            current.buffer.force();
+            if (current.unapplied == 0) {
+                segments.remove(current.firstSequence);
+                delete(current.path);
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.info("Transfer journal closed at sequence {}", lastSequence);
+    }
+
+    private void runFlusher() {
+        long flushDelayMs = config.getFlushDelay().toMillis();
+        while (true) {
+            lock.lock();
+            try {
+                while (awaitingFlush.isEmpty() && flushing) {
+                    appended.await();
+                }
+                if (awaitingFlush.isEmpty()) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (flushDelayMs > 0) {
+                // Let more appends join this group
+                try {
+                    Thread.sleep(flushDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            flush();
+        }
+    }
+
+    private void flush() {
+        Segment segment;
+        int from;
+        int to;
+        long flushedSequence;
+        lock.lock();
+        try {
+            segment = current;
+            from = segment.flushedOffset;
+            to = segment.writeOffset;
+            flushedSequence = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+
+        // Appends carry on while the range is forced; earlier segments were forced when they were sealed
+        RuntimeException failure = null;
+        try {
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+            }
+        } catch (UncheckedIOException e) {
+            log.error("Failed to force transfer journal {}", segment.path, e);
+            failure = e;
+        }
+
+        List<Appended> flushed = new ArrayList<>();
+        lock.lock();
+        try {
+            if (failure == null) {
+                segment.flushedOffset = Math.max(segment.flushedOffset, to);
+            }
+            while (!awaitingFlush.isEmpty() && awaitingFlush.peekFirst().sequence() <= flushedSequence) {
+                flushed.add(awaitingFlush.pollFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (Appended entry : flushed) {
+            if (failure == null) {
+                entry.durable().complete(null);
+            } else {
+                entry.durable().completeExceptionally(failure);
+            }
+        }
+    }
+
+    // Called with the lock held
+    private void rotate(long nextSequence, int recordLength) {
+        if (JournalFormat.SEGMENT_HEADER_BYTES + recordLength > current.buffer.capacity()) {
+            throw new IllegalStateException("Journal record of " + recordLength + " bytes exceeds the segment size");
+        }
+        current.buffer.force();
+        current.flushedOffset = current.writeOffset;
+        current.sealed = true;
+        if (current.unapplied == 0) {
+            segments.remove(current.firstSequence);
+            delete(current.path);
+        }
+        current = createSegment(nextSequence);
+        segments.put(current.firstSequence, current);
+    }
+
+    private Segment createSegment(long firstSequence) {
+        Path directory = Path.of(config.getDirectory());
+        Path path = directory.resolve(JournalFormat.segmentFileName(firstSequence));
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping outlives the channel and grows the file to the full segment size
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, config.getSegmentSize().toBytes());
+            JournalFormat.writeSegmentHeader(buffer);
+            buffer.force();
+            syncDirectory(directory);
+            return new Segment(firstSequence, path, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal segment " + path, e);
+        }
+    }
+
+    // Makes a new segment's directory entry durable, not just its contents
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync journal directory {}", directory, e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete journal segment {}", path, e);
+        }
+    }
+
+    /**
+     * @param durable completes once the record is on disk
+     */
+    public record Appended(long sequence, CompletableFuture<Void> durable) {
+    }
+
+    private static final class Segment {
+        private final long firstSequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int writeOffset = JournalFormat.SEGMENT_HEADER_BYTES;
+        private int flushedOffset = JournalFormat.SEGMENT_HEADER_BYTES;
+        private int unapplied;
+        private boolean sealed;
+
+        private Segment(long firstSequence, Path path, MappedByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.fintech.ledger_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and outcome meters for {@link LedgerService} operations.
+ * <p>
+ * Every meter is registered up front so the hot path only does enum-keyed lookups. Timers publish
+ * percentile histogram buckets for aggregation in the metrics backend, plus p50/p95/p99 computed
+ * locally so they are readable straight from {@code /actuator/metrics}.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Operation {
+        APPLY_TRANSFER,
+        PROCESS_TRANSFER,
+        CREATE_ACCOUNT,
+        ACCOUNT_HISTORY
+    }
+
+    public enum Phase {
+        IDEMPOTENCY_CHECK,
+        LOCK_ACQUISITION,
+        BALANCE_MUTATION,
+        ENTRY_PERSISTENCE
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        INSUFFICIENT_FUNDS,
+        REPLAY,
+        CONFLICT,
+        ERROR
+    }
+
+    private final Map<Operation, Timer> operationTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Phase, Timer>> phaseTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Outcome, Counter>> outcomeCounters = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> retryCounters = new EnumMap<>(Operation.class);
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            operationTimers.put(operation, timer("ledger.operation.duration", "End-to-end duration of a ledger operation")
+                    .tag("operation", tagValue(operation))
+                    .register(meterRegistry));
+
+            Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                phases.put(phase, timer("ledger.operation.phase.duration", "Duration of one phase of a ledger operation")
+                        .tag("operation", tagValue(operation))
+                        .tag("phase", tagValue(phase))
+                        .register(meterRegistry));
+            }
+            phaseTimers.put(operation, phases);
+
+            Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, Counter.builder("ledger.operation.outcomes")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .description("Completed ledger operations by outcome")
+                        .register(meterRegistry));
+            }
+            outcomeCounters.put(operation, outcomes);
+
+            retryCounters.put(operation, Counter.builder("ledger.operation.retries")
+                    .tag("operation", tagValue(operation))
+                    .description("Attempts of a ledger operation retried after a concurrent update")
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record a whole operation started at {@code startedNanos} (from {@link System#nanoTime()})
+     */
+    public void recordOperation(Operation operation, long startedNanos) {
+        operationTimers.get(operation).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a phase started at {@code startedNanos}
+     *
+     * @return the current {@link System#nanoTime()}, to start the next phase from
+     */
+    public long recordPhase(Operation operation, Phase phase, long startedNanos) {
+        long now = System.nanoTime();
+        phaseTimers.get(operation).get(phase).record(now - startedNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void recordOutcome(Operation operation, Outcome outcome) {
+        outcomeCounters.get(operation).get(outcome).increment();
+    }
+
+    public void recordRetry(Operation operation) {
+        retryCounters.get(operation).increment();
+    }
+
+    private static Timer.Builder timer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.of(100, ChronoUnit.MICROS))
+                .maximumExpectedValue(Duration.ofSeconds(10));
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,10 @@
+package com.fintech.ledger_service.util;
+
+/**
+ * Source of string identifiers for ledger entries and generated transfer ids
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    String nextId();
+}
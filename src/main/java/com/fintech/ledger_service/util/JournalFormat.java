@@ -0,0 +1,155 @@
+package com.fintech.ledger_service.util;
+
+import com.fintech.ledger_service.domain.JournalRecord;
+import com.fintech.ledger_service.domain.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk layout of transfer journal segments.
+ * <p>
+ * A segment is a pre-sized file named after the sequence of its first record. It starts with an 8-byte header
+ * (magic, format version) followed by records of {@code [payload length][CRC32C of payload][payload]}, all
+ * big-endian. The payload holds the sequence, timestamp (epoch millis), from and to account ids, amount in minor
+ * units and the UTF-8 transfer id prefixed by its length. The unwritten remainder of a segment is zero-filled,
+ * so a zero length marks its end. Anything else that does not check out, typically a record torn by a crash
+ * before it was fsynced, ends the readable part of the segment.
+ */
+public final class JournalFormat {
+
+    public static final int MAGIC = 0x4C4A4E4C; // "LJNL"
+    public static final int VERSION = 1;
+    public static final int SEGMENT_HEADER_BYTES = 8;
+    public static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 5 * Long.BYTES + Short.BYTES;
+
+    private JournalFormat() {
+    }
+
+    public static String segmentFileName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    public static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Segment files in the directory, oldest first
+     */
+    public static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public static void writeSegmentHeader(ByteBuffer segment) {
+        segment.putInt(0, MAGIC);
+        segment.putInt(Integer.BYTES, VERSION);
+    }
+
+    /**
+     * The record framed and checksummed, ready to be copied into a segment
+     */
+    public static byte[] encode(JournalRecord record) {
+        byte[] transferId = record.transferId().getBytes(StandardCharsets.UTF_8);
+        if (transferId.length > 0xFFFF) {
+            throw new IllegalArgumentException("Transfer ID too long for the journal: " + record.transferId());
+        }
+        int payloadLength = FIXED_PAYLOAD_BYTES + transferId.length;
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt(0); // checksum, filled in below
+        buffer.putLong(record.sequence());
+        buffer.putLong(record.timestamp().toEpochMilli());
+        buffer.putLong(record.fromAccountId());
+        buffer.putLong(record.toAccountId());
+        buffer.putLong(record.amount().getMinorUnits());
+        buffer.putShort((short) transferId.length);
+        buffer.put(transferId);
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), RECORD_HEADER_BYTES, payloadLength);
+        buffer.putInt(Integer.BYTES, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    public static Segment readSegment(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readSegment(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Every intact record of the segment, stopping at its end or at the first record that does not check out
+     */
+    public static Segment readSegment(ByteBuffer segment) {
+        List<JournalRecord> records = new ArrayList<>();
+        if (segment.limit() < SEGMENT_HEADER_BYTES || segment.getInt(0) != MAGIC) {
+            return new Segment(records, 0, "not a journal segment");
+        }
+        if (segment.getInt(Integer.BYTES) != VERSION) {
+            return new Segment(records, 0, "unsupported format version " + segment.getInt(Integer.BYTES));
+        }
+
+        CRC32C crc = new CRC32C();
+        int offset = SEGMENT_HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= segment.limit()) {
+            int payloadLength = segment.getInt(offset);
+            if (payloadLength == 0) {
+                return new Segment(records, offset, null);
+            }
+            int payloadOffset = offset + RECORD_HEADER_BYTES;
+            if (payloadLength < FIXED_PAYLOAD_BYTES || payloadLength > segment.limit() - payloadOffset) {
+                return new Segment(records, offset, "invalid record length " + payloadLength + " at offset " + offset);
+            }
+
+            crc.reset();
+            crc.update(segment.slice(payloadOffset, payloadLength));
+            if ((int) crc.getValue() != segment.getInt(offset + Integer.BYTES)) {
+                return new Segment(records, offset, "checksum mismatch at offset " + offset);
+            }
+
+            ByteBuffer payload = segment.slice(payloadOffset, payloadLength);
+            long sequence = payload.getLong();
+            Instant timestamp = Instant.ofEpochMilli(payload.getLong());
+            long fromAccountId = payload.getLong();
+            long toAccountId = payload.getLong();
+            Money amount = Money.ofMinor(payload.getLong());
+            byte[] transferId = new byte[Short.toUnsignedInt(payload.getShort())];
+            if (transferId.length != payload.remaining()) {
+                return new Segment(records, offset, "invalid transfer ID length at offset " + offset);
+            }
+            payload.get(transferId);
+
+            records.add(new JournalRecord(sequence, timestamp, new String(transferId, StandardCharsets.UTF_8),
+                    fromAccountId, toAccountId, amount));
+            offset = payloadOffset + payloadLength;
+        }
+        return new Segment(records, offset, null);
+    }
+
+    /**
+     * @param end offset just past the last intact record
+     * @param problem why reading stopped before the end of the written data, or null if it did not
+     */
+    public record Segment(List<JournalRecord> records, int end, String problem) {
+    }
+}
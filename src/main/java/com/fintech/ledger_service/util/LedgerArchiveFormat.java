@@ -0,0 +1,610 @@
+package com.fintech.ledger_service.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fintech.ledger_service.data.ArchiveFormat;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * On-disk layout of ledger archives, the export of {@code accounts} and {@code ledger_entries}.
+ * <p>
+ * BINARY starts with a 12-byte header (magic, format version, flags) followed by blocks of
+ * {@code [raw length][stored length][CRC32C of the raw bytes][stored bytes]}, all big-endian. The stored bytes are
+ * the raw block Deflate-compressed when the header's compressed flag is set. A block holds whole records, each
+ * starting with a tag: {@code A} account (id, balance in minor units, created and updated time), {@code E} ledger
+ * entry (account id, amount in minor units, {@code D}ebit or {@code C}redit, created time, then the entry and
+ * transfer ids as UTF-8 prefixed by their length) and a final {@code Z} trailer holding the account and entry
+ * counts. Times are UTC epoch microseconds, {@link Long#MIN_VALUE} for none.
+ * <p>
+ * NDJSON is one JSON object per line, typed {@code account}, {@code entry} or {@code end}. The end line holds the
+ * counts and the CRC32C of all lines before it. When compressed the whole file is gzipped, so standard tools
+ * read it too.
+ * <p>
+ * Readers fail on a checksum mismatch, on an archive that ends before its trailer and on trailer counts that
+ * disagree with the records read, so a truncated or damaged copy cannot pass for a complete one.
+ */
+public final class LedgerArchiveFormat {
+
+    public static final int MAGIC = 0x4C415243; // "LARC"
+    public static final int VERSION = 1;
+
+    private static final int FLAG_DEFLATE = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int BLOCK_HEADER_BYTES = 12;
+    private static final int BLOCK_BYTES = 1 << 20;
+    // Deflate can expand incompressible input slightly
+    private static final int MAX_STORED_BYTES = BLOCK_BYTES + BLOCK_BYTES / 64;
+    private static final int GZIP_MAGIC = 0x1F8B;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final byte ACCOUNT = 'A';
+    private static final byte ENTRY = 'E';
+    private static final byte TRAILER = 'Z';
+    private static final byte DEBIT = 'D';
+    private static final byte CREDIT = 'C';
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private LedgerArchiveFormat() {
+    }
+
+    public sealed interface ArchiveRecord permits AccountRecord, EntryRecord {
+    }
+
+    /**
+     * An account with its full balance; shard buckets are folded into it
+     */
+    public record AccountRecord(long id, Money balance, LocalDateTime createdAt, LocalDateTime updatedAt)
+            implements ArchiveRecord {
+    }
+
+    public record EntryRecord(String id, String transferId, long accountId, Money amount, EntryType type,
+                              LocalDateTime createdAt) implements ArchiveRecord {
+    }
+
+    public interface Writer extends Closeable {
+
+        void write(ArchiveRecord record) throws IOException;
+
+        /**
+         * Write the trailer and force the archive to disk; an archive closed without it does not read back
+         */
+        void finish() throws IOException;
+
+        long accounts();
+
+        long entries();
+    }
+
+    public interface Reader extends Closeable {
+
+        /**
+         * @return the next record, or null once the trailer has been read and checks out
+         */
+        ArchiveRecord next() throws IOException;
+    }
+
+    public static Writer newWriter(Path file, ArchiveFormat format, boolean compress) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        try {
+            return format == ArchiveFormat.BINARY
+                    ? new BinaryWriter(channel, compress)
+                    : new NdjsonWriter(channel, compress);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reader for an archive of either format, told apart by its first bytes
+     */
+    public static Reader newReader(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer start = ByteBuffer.allocate(Integer.BYTES);
+            while (start.hasRemaining() && channel.read(start) >= 0) {
+                // Keep reading; a short file is checked below
+            }
+            channel.position(0);
+            if (start.position() == Integer.BYTES && start.getInt(0) == MAGIC) {
+                return new BinaryReader(channel);
+            }
+            boolean gzipped = start.position() >= Short.BYTES && Short.toUnsignedInt(start.getShort(0)) == GZIP_MAGIC;
+            return new NdjsonReader(channel, gzipped);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return micros == NO_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Identifier too long for the archive: " + value);
+        }
+        return bytes;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer... buffers) throws IOException {
+        while (buffers[buffers.length - 1].hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Archive ends before its trailer");
+            }
+        }
+    }
+
+    private static void checkCounts(long accounts, long entries, long accountsRead, long entriesRead)
+            throws IOException {
+        if (accounts != accountsRead || entries != entriesRead) {
+            throw new IOException("Archive trailer counts " + accounts + " accounts and " + entries
+                    + " entries, but " + accountsRead + " and " + entriesRead + " were read");
+        }
+    }
+
+    private static final class BinaryWriter implements Writer {
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES);
+        private final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        private final CRC32C crc = new CRC32C();
+        private final Deflater deflater;
+        private final byte[] stored;
+        private long accounts;
+        private long entries;
+
+        private BinaryWriter(FileChannel channel, boolean compress) throws IOException {
+            this.channel = channel;
+            this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            this.stored = compress ? new byte[MAX_STORED_BYTES] : null;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_DEFLATE : 0)
+                    .flip();
+            writeFully(channel, header);
+        }
+
+        @Override
+        public void write(ArchiveRecord record) throws IOException {
+            switch (record) {
+                case AccountRecord account -> {
+                    makeRoom(1 + 4 * Long.BYTES);
+                    block.put(ACCOUNT)
+                            .putLong(account.id())
+                            .putLong(account.balance().getMinorUnits())
+                            .putLong(toMicros(account.createdAt()))
+                            .putLong(toMicros(account.updatedAt()));
+                    accounts++;
+                }
+                case EntryRecord entry -> {
+                    byte[] id = utf8(entry.id());
+                    byte[] transferId = utf8(entry.transferId());
+                    makeRoom(2 + 3 * Long.BYTES + 2 * Short.BYTES + id.length + transferId.length);
+                    block.put(ENTRY)
+                            .putLong(entry.accountId())
+                            .putLong(entry.amount().getMinorUnits())
+                            .put(entry.type() == EntryType.DEBIT ? DEBIT : CREDIT)
+                            .putLong(toMicros(entry.createdAt()))
+                            .putShort((short) id.length).put(id)
+                            .putShort((short) transferId.length).put(transferId);
+                    entries++;
+                }
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            makeRoom(1 + 2 * Long.BYTES);
+            block.put(TRAILER).putLong(accounts).putLong(entries);
+            flushBlock();
+            channel.force(true);
+        }
+
+        @Override
+        public long accounts() {
+            return accounts;
+        }
+
+        @Override
+        public long entries() {
+            return entries;
+        }
+
+        private void makeRoom(int bytes) throws IOException {
+            if (block.remaining() < bytes) {
+                flushBlock();
+            }
+        }
+
+        private void flushBlock() throws IOException {
+            int rawLength = block.position();
+            crc.reset();
+            crc.update(block.array(), 0, rawLength);
+
+            ByteBuffer body;
+            if (deflater != null) {
+                deflater.reset();
+                deflater.setInput(block.array(), 0, rawLength);
+                deflater.finish();
+                int storedLength = deflater.deflate(stored);
+                if (!deflater.finished()) {
+                    throw new IllegalStateException("Archive block did not fit its compression buffer");
+                }
+                body = ByteBuffer.wrap(stored, 0, storedLength);
+            } else {
+                body = ByteBuffer.wrap(block.array(), 0, rawLength);
+            }
+            blockHeader.clear().putInt(rawLength).putInt(body.remaining()).putInt((int) crc.getValue()).flip();
+            writeFully(channel, blockHeader, body);
+            block.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflater != null) {
+                deflater.end();
+            }
+            channel.close();
+        }
+    }
+
+    private static final class BinaryReader implements Reader {
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES).limit(0);
+        private final ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        private final CRC32C crc = new CRC32C();
+        private final Inflater inflater;
+        private final byte[] stored;
+        private long accounts;
+        private long entries;
+        private boolean done;
+
+        private BinaryReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header);
+            if (header.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Unsupported archive format version " + header.getInt(Integer.BYTES));
+            }
+            boolean compressed = (header.getInt(2 * Integer.BYTES) & FLAG_DEFLATE) != 0;
+            this.inflater = compressed ? new Inflater() : null;
+            this.stored = compressed ? new byte[MAX_STORED_BYTES] : null;
+        }
+
+        @Override
+        public ArchiveRecord next() throws IOException {
+            if (done) {
+                return null;
+            }
+            if (!block.hasRemaining()) {
+                readBlock();
+            }
+            byte tag = block.get();
+            switch (tag) {
+                case ACCOUNT -> {
+                    long id = block.getLong();
+                    Money balance = Money.ofMinor(block.getLong());
+                    LocalDateTime createdAt = fromMicros(block.getLong());
+                    LocalDateTime updatedAt = fromMicros(block.getLong());
+                    accounts++;
+                    return new AccountRecord(id, balance, createdAt, updatedAt);
+                }
+                case ENTRY -> {
+                    long accountId = block.getLong();
+                    Money amount = Money.ofMinor(block.getLong());
+                    EntryType type = block.get() == DEBIT ? EntryType.DEBIT : EntryType.CREDIT;
+                    LocalDateTime createdAt = fromMicros(block.getLong());
+                    String id = readString();
+                    String transferId = readString();
+                    entries++;
+                    return new EntryRecord(id, transferId, accountId, amount, type, createdAt);
+                }
+                case TRAILER -> {
+                    checkCounts(block.getLong(), block.getLong(), accounts, entries);
+                    done = true;
+                    return null;
+                }
+                default -> throw new IOException("Unknown archive record tag " + tag);
+            }
+        }
+
+        private String readString() {
+            byte[] bytes = new byte[Short.toUnsignedInt(block.getShort())];
+            block.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void readBlock() throws IOException {
+            long offset = channel.position();
+            readFully(channel, blockHeader.clear());
+            int rawLength = blockHeader.getInt(0);
+            int storedLength = blockHeader.getInt(Integer.BYTES);
+            if (rawLength <= 0 || rawLength > BLOCK_BYTES || storedLength <= 0
+                    || storedLength > (inflater != null ? MAX_STORED_BYTES : rawLength)) {
+                throw new IOException("Invalid archive block at offset " + offset);
+            }
+
+            if (inflater != null) {
+                readFully(channel, ByteBuffer.wrap(stored, 0, storedLength));
+                inflater.reset();
+                inflater.setInput(stored, 0, storedLength);
+                try {
+                    if (inflater.inflate(block.array(), 0, rawLength) != rawLength || !inflater.finished()) {
+                        throw new IOException("Archive block at offset " + offset + " does not decompress");
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("Archive block at offset " + offset + " does not decompress", e);
+                }
+            } else {
+                readFully(channel, ByteBuffer.wrap(block.array(), 0, rawLength));
+            }
+
+            crc.reset();
+            crc.update(block.array(), 0, rawLength);
+            if ((int) crc.getValue() != blockHeader.getInt(2 * Integer.BYTES)) {
+                throw new IOException("Checksum mismatch in archive block at offset " + offset);
+            }
+            block.position(0).limit(rawLength);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (inflater != null) {
+                inflater.end();
+            }
+            channel.close();
+        }
+    }
+
+    private static final class NdjsonWriter implements Writer {
+        private final FileChannel channel;
+        private final GZIPOutputStream gzip;
+        private final CRC32C crc = new CRC32C();
+        private final OutputStream out;
+        private final JsonGenerator json;
+        private long accounts;
+        private long entries;
+
+        private NdjsonWriter(FileChannel channel, boolean compress) throws IOException {
+            this.channel = channel;
+            OutputStream file = new BufferedOutputStream(Channels.newOutputStream(channel), BLOCK_BYTES);
+            this.gzip = compress ? new GZIPOutputStream(file, 1 << 16) : null;
+            // Checksums the JSON itself, before any compression
+            this.out = new CheckedOutputStream(compress ? gzip : file, crc);
+            this.json = JSON.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ArchiveRecord record) throws IOException {
+            json.writeStartObject();
+            switch (record) {
+                case AccountRecord account -> {
+                    json.writeStringField("type", "account");
+                    json.writeNumberField("id", account.id());
+                    json.writeNumberField("balance", account.balance().toBigDecimal());
+                    writeTime("createdAt", account.createdAt());
+                    writeTime("updatedAt", account.updatedAt());
+                    accounts++;
+                }
+                case EntryRecord entry -> {
+                    json.writeStringField("type", "entry");
+                    json.writeStringField("id", entry.id());
+                    json.writeStringField("transferId", entry.transferId());
+                    json.writeNumberField("accountId", entry.accountId());
+                    json.writeNumberField("amount", entry.amount().toBigDecimal());
+                    json.writeStringField("entryType", entry.type().name());
+                    writeTime("createdAt", entry.createdAt());
+                    entries++;
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeTime(String field, LocalDateTime time) throws IOException {
+            if (time == null) {
+                json.writeNullField(field);
+            } else {
+                json.writeStringField(field, time.toString());
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+            long checksum = crc.getValue();
+            json.writeStartObject();
+            json.writeStringField("type", "end");
+            json.writeNumberField("accounts", accounts);
+            json.writeNumberField("entries", entries);
+            json.writeNumberField("crc32c", checksum);
+            json.writeEndObject();
+            json.writeRaw('\n');
+            json.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        @Override
+        public long accounts() {
+            return accounts;
+        }
+
+        @Override
+        public long entries() {
+            return entries;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                json.close();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static final class NdjsonReader implements Reader {
+        private final InputStream in;
+        private final CRC32C crc = new CRC32C();
+        private byte[] line = new byte[512];
+        private int lineLength;
+        private long accounts;
+        private long entries;
+        private boolean done;
+
+        private NdjsonReader(FileChannel channel, boolean gzipped) throws IOException {
+            InputStream file = Channels.newInputStream(channel);
+            this.in = new BufferedInputStream(gzipped ? new GZIPInputStream(file, 1 << 16) : file, BLOCK_BYTES);
+        }
+
+        @Override
+        public ArchiveRecord next() throws IOException {
+            if (done) {
+                return null;
+            }
+            if (!readLine()) {
+                throw new IOException("Archive ends before its trailer");
+            }
+
+            String type = null;
+            String id = null;
+            long numericId = 0;
+            String transferId = null;
+            long accountId = 0;
+            BigDecimal money = null;
+            String entryType = null;
+            String createdAt = null;
+            String updatedAt = null;
+            long accountCount = 0;
+            long entryCount = 0;
+            long checksum = 0;
+            try (JsonParser parser = JSON.createParser(line, 0, lineLength)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Archive line " + (accounts + entries + 1) + " is not a JSON object");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "type" -> type = parser.getText();
+                        case "id" -> {
+                            if (value == JsonToken.VALUE_STRING) {
+                                id = parser.getText();
+                            } else {
+                                numericId = parser.getLongValue();
+                            }
+                        }
+                        case "transferId" -> transferId = parser.getText();
+                        case "accountId" -> accountId = parser.getLongValue();
+                        case "balance", "amount" -> money = parser.getDecimalValue();
+                        case "entryType" -> entryType = parser.getText();
+                        case "createdAt" -> createdAt = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                        case "updatedAt" -> updatedAt = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                        case "accounts" -> accountCount = parser.getLongValue();
+                        case "entries" -> entryCount = parser.getLongValue();
+                        case "crc32c" -> checksum = parser.getLongValue();
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+
+            if ("end".equals(type)) {
+                if (checksum != crc.getValue()) {
+                    throw new IOException("Archive checksum mismatch");
+                }
+                checkCounts(accountCount, entryCount, accounts, entries);
+                done = true;
+                return null;
+            }
+            crc.update(line, 0, lineLength);
+            crc.update('\n');
+            if ("account".equals(type)) {
+                accounts++;
+                return new AccountRecord(numericId, Money.of(money), parseTime(createdAt), parseTime(updatedAt));
+            }
+            if ("entry".equals(type)) {
+                entries++;
+                return new EntryRecord(id, transferId, accountId, Money.of(money), EntryType.valueOf(entryType),
+                        parseTime(createdAt));
+            }
+            throw new IOException("Unknown archive record type " + type);
+        }
+
+        private static LocalDateTime parseTime(String time) {
+            return time == null ? null : LocalDateTime.parse(time);
+        }
+
+        /**
+         * Next line, without its newline, into {@link #line}; false at the end of the archive
+         */
+        private boolean readLine() throws IOException {
+            lineLength = 0;
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    if (lineLength == 0) {
+                        return false;
+                    }
+                    throw new IOException("Archive ends in the middle of a line");
+                }
+                if (lineLength == line.length) {
+                    line = Arrays.copyOf(line, 2 * line.length);
+                }
+                line[lineLength++] = (byte) b;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.fintech.ledger_service.util;
+
+import java.util.UUID;
+
+/**
+ * Random version 4 UUIDs, as generated before time-ordered ids were introduced
+ */
+public class RandomUuidIdGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
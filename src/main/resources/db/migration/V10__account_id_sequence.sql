@@ -0,0 +1,8 @@
+-- Account ids come from a sequence handed out in blocks of 1000 (pooled-lo) instead of an identity column,
+-- so Hibernate can batch account inserts and bulk provisioning can pre-allocate ids
+
+CREATE SEQUENCE account_id_seq INCREMENT BY 1000;
+
+SELECT setval('account_id_seq', COALESCE((SELECT MAX(id) FROM accounts), 0) + 1, false);
+
+ALTER TABLE accounts ALTER COLUMN id DROP IDENTITY IF EXISTS;
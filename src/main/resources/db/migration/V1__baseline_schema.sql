@@ -0,0 +1,23 @@
+-- Baseline schema as originally generated by Hibernate.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+CREATE TABLE accounts (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    balance    NUMERIC(19, 2) NOT NULL,
+    version    BIGINT         NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE ledger_entries (
+    id          VARCHAR(255)   NOT NULL PRIMARY KEY,
+    transfer_id VARCHAR(255)   NOT NULL,
+    account_id  BIGINT         NOT NULL,
+    amount      NUMERIC(19, 2) NOT NULL,
+    type        VARCHAR(255)   NOT NULL CHECK (type IN ('DEBIT', 'CREDIT')),
+    created_at  TIMESTAMP(6)
+);
+
+CREATE INDEX idx_transfer_id ON ledger_entries (transfer_id);
+CREATE INDEX idx_account_id ON ledger_entries (account_id);
+CREATE INDEX idx_created_at ON ledger_entries (created_at);
@@ -0,0 +1,13 @@
+-- Hot-account sharding: balance buckets for accounts with shard_count > 0
+
+ALTER TABLE accounts ADD COLUMN shard_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE account_shards (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id  BIGINT         NOT NULL REFERENCES accounts (id),
+    shard_index INTEGER        NOT NULL,
+    balance     NUMERIC(19, 2) NOT NULL CHECK (balance >= 0),
+    version     BIGINT         NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_account_shard UNIQUE (account_id, shard_index)
+);
@@ -0,0 +1,13 @@
+-- Idempotency store: one row per transfer id, claimed before the transfer is applied and
+-- completed with its result. Rows are purged a whole expiry bucket at a time.
+
+CREATE TABLE idempotency_keys (
+    transfer_id        VARCHAR(255)   NOT NULL PRIMARY KEY,
+    from_balance_after NUMERIC(19, 2),
+    to_balance_after   NUMERIC(19, 2),
+    completed_at       TIMESTAMP(6),
+    created_at         TIMESTAMP(6)   NOT NULL,
+    expiry_bucket      BIGINT         NOT NULL
+);
+
+CREATE INDEX idx_idempotency_expiry_bucket ON idempotency_keys (expiry_bucket);
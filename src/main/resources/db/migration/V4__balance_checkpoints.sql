@@ -0,0 +1,10 @@
+-- Per-account balance checkpoints; ledger-derived balances only sum entries created after checkpoint_at
+
+CREATE TABLE balance_checkpoints (
+    account_id    BIGINT         NOT NULL PRIMARY KEY REFERENCES accounts (id),
+    balance       NUMERIC(19, 2) NOT NULL,
+    checkpoint_at TIMESTAMP(6)   NOT NULL,
+    updated_at    TIMESTAMP(6)
+);
+
+CREATE INDEX idx_account_created_at ON ledger_entries (account_id, created_at);
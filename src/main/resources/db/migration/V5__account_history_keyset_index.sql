@@ -0,0 +1,6 @@
+-- Keyset pagination over an account's history orders by (created_at, id); widen the
+-- checkpoint index so both the range sums and the history pages are served by one index
+
+DROP INDEX idx_account_created_at;
+
+CREATE INDEX idx_account_created_at_id ON ledger_entries (account_id, created_at, id);
@@ -0,0 +1,44 @@
+-- Range-partition ledger_entries by created_at.
+-- The existing table becomes the first partition, covering everything up to the end of the current
+-- month; later months are created ahead of time by LedgerPartitionMaintainer. Rows outside every range
+-- land in the default partition, which should stay empty.
+-- Primary and unique keys of a partitioned table must include the partition key, hence (id, created_at).
+
+UPDATE ledger_entries SET created_at = TIMESTAMP '1970-01-01 00:00:00' WHERE created_at IS NULL;
+ALTER TABLE ledger_entries ALTER COLUMN created_at SET NOT NULL;
+
+ALTER TABLE ledger_entries RENAME TO ledger_entries_legacy;
+ALTER INDEX idx_transfer_id RENAME TO idx_transfer_id_legacy;
+ALTER INDEX idx_created_at RENAME TO idx_created_at_legacy;
+ALTER INDEX idx_account_created_at_id RENAME TO idx_account_created_at_id_legacy;
+-- Covered by the (account_id, created_at, id) composite
+DROP INDEX idx_account_id;
+
+ALTER TABLE ledger_entries_legacy DROP CONSTRAINT ledger_entries_pkey;
+ALTER TABLE ledger_entries_legacy ADD CONSTRAINT ledger_entries_legacy_pkey PRIMARY KEY (id, created_at);
+
+CREATE TABLE ledger_entries (
+    id          VARCHAR(255)   NOT NULL,
+    transfer_id VARCHAR(255)   NOT NULL,
+    account_id  BIGINT         NOT NULL,
+    amount      NUMERIC(19, 2) NOT NULL,
+    type        VARCHAR(255)   NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (id, created_at),
+    -- Same name as the legacy table's check so the partition can be attached
+    CONSTRAINT ledger_entries_type_check CHECK (type IN ('DEBIT', 'CREDIT'))
+) PARTITION BY RANGE (created_at);
+
+DO $$
+BEGIN
+    EXECUTE format('ALTER TABLE ledger_entries ATTACH PARTITION ledger_entries_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   date_trunc('month', LOCALTIMESTAMP) + INTERVAL '1 month');
+END
+$$;
+
+CREATE TABLE ledger_entries_default PARTITION OF ledger_entries DEFAULT;
+
+-- Partitioned indexes; the equivalent indexes already on the legacy partition are attached, not rebuilt
+CREATE INDEX idx_transfer_id ON ledger_entries (transfer_id);
+CREATE INDEX idx_created_at ON ledger_entries (created_at);
+CREATE INDEX idx_account_created_at_id ON ledger_entries (account_id, created_at, id);
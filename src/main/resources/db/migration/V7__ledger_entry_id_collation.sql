@@ -0,0 +1,7 @@
+-- Compare ledger entry ids byte-wise. Time-ordered ids (uppercase Crockford base32) then sort by
+-- creation time, so primary key inserts append to the rightmost leaf instead of splitting random
+-- pages, and comparisons skip locale-aware collation. Existing random UUID ids are kept as they are:
+-- they stay unique, and only newly generated ids need to be ordered. Only the indexes on id are
+-- rebuilt; the column type is unchanged, so the table itself is not rewritten.
+
+ALTER TABLE ledger_entries ALTER COLUMN id TYPE VARCHAR(255) COLLATE "C";
@@ -0,0 +1,24 @@
+-- Change feed outbox: one row per ledger entry, written in the entry's transaction. The relay assigns
+-- feed_position after commit, one batch at a time, so positions are committed in increasing order and a
+-- consumer reading past its last position never skips a change. The unique index rejects a second relay
+-- handing out the same positions concurrently.
+
+-- Ids come from a sequence handed out in blocks of 1000 (pooled-lo) rather than an identity column, so the
+-- rows are batch-inserted with the ledger entries they copy
+CREATE SEQUENCE ledger_change_id_seq INCREMENT BY 1000;
+
+CREATE TABLE ledger_changes (
+    id            BIGINT         PRIMARY KEY,
+    feed_position BIGINT,
+    entry_id      VARCHAR(255)   NOT NULL,
+    transfer_id   VARCHAR(255)   NOT NULL,
+    account_id    BIGINT         NOT NULL,
+    amount        NUMERIC(19, 2) NOT NULL,
+    type          VARCHAR(255)   NOT NULL CHECK (type IN ('DEBIT', 'CREDIT')),
+    created_at    TIMESTAMP(6)   NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_ledger_changes_position ON ledger_changes (feed_position);
+
+-- Keeps the relay's backlog scan proportional to the backlog
+CREATE INDEX idx_ledger_changes_unsequenced ON ledger_changes (id) WHERE feed_position IS NULL;
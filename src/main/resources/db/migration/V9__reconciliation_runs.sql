@@ -0,0 +1,12 @@
+-- Balance reconciliation progress; next_account_id is the resume point of an unfinished run
+
+CREATE TABLE reconciliation_runs (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_account_id  BIGINT       NOT NULL,
+    up_to_account_id BIGINT       NOT NULL,
+    next_account_id  BIGINT       NOT NULL,
+    accounts_checked BIGINT       NOT NULL,
+    mismatches       BIGINT       NOT NULL,
+    started_at       TIMESTAMP(6) NOT NULL,
+    finished_at      TIMESTAMP(6)
+);
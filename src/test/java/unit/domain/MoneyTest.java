@@ -0,0 +1,38 @@
+package unit.domain;
+
+import com.fintech.ledger_service.domain.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void of_ShouldConvertExactlyAndIgnoreTrailingZeros() {
+        // When
+        Money amount = Money.of(new BigDecimal("12.3400"));
+
+        // Then
+        assertEquals(1234L, amount.getMinorUnits());
+        assertEquals(Money.of("12.34"), amount);
+        assertEquals(new BigDecimal("12.34"), amount.toBigDecimal());
+    }
+
+    @Test
+    void of_SubMinorUnitAmount_ShouldBeRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> Money.of("0.001"));
+    }
+
+    @Test
+    void plus_Overflow_ShouldThrowInsteadOfWrapping() {
+        // Given
+        Money max = Money.ofMinor(Long.MAX_VALUE);
+
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofMinor(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MIN_VALUE).negate());
+    }
+}
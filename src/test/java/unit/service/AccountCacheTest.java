@@ -0,0 +1,93 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.AccountCacheConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.service.AccountCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccountCache accountCache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(new AccountCacheConfig(), meterRegistry);
+    }
+
+    @Test
+    void put_OlderVersion_ShouldNotOverwriteNewerCommittedState() {
+        // Given: a transfer committed version 3 after a reader loaded version 2
+        accountCache.put(account(1L, "750.00", 3L));
+
+        // When
+        accountCache.put(account(1L, "1000.00", 2L));
+
+        // Then
+        Account cached = accountCache.get(1L).orElseThrow();
+        assertEquals(Money.of("750.00"), cached.getBalance());
+        assertEquals(3L, cached.getVersion());
+    }
+
+    @Test
+    void get_ShouldReturnCopyAndCountHitsAndMisses() {
+        // Given
+        accountCache.put(account(1L, "100.00", 1L));
+
+        // When
+        accountCache.get(1L).orElseThrow().setBalance(Money.ZERO);
+        accountCache.get(2L);
+
+        // Then
+        assertEquals(Money.of("100.00"), accountCache.get(1L).orElseThrow().getBalance());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tags("cache", "accounts", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "accounts", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void put_ShardedAccount_ShouldEvictInsteadOfCaching() {
+        // Given
+        accountCache.put(account(1L, "100.00", 1L));
+        Account sharded = account(1L, "0.00", 2L);
+        sharded.setShardCount(4);
+
+        // When
+        accountCache.put(sharded);
+
+        // Then
+        assertTrue(accountCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void invalidateAfterCommit_ShouldEvictOnlyOnceCommitted() {
+        // Given
+        accountCache.put(account(1L, "100.00", 1L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            accountCache.invalidateAfterCommit(1L);
+            boolean cachedBeforeCommit = accountCache.get(1L).isPresent();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            assertTrue(cachedBeforeCommit);
+            assertTrue(accountCache.get(1L).isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Account account(Long id, String balance, Long version) {
+        Account account = new Account(id);
+        account.setBalance(Money.of(balance));
+        account.setVersion(version);
+        return account;
+    }
+}
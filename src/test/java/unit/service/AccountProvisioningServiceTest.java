@@ -0,0 +1,111 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.ProvisioningConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.service.AccountProvisioningService;
+import com.fintech.ledger_service.service.ChangeFeedService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountProvisioningServiceTest {
+
+    private static final String NEXT_ID_BLOCK = "select nextval('" + Account.ID_SEQUENCE + "')";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountProvisioningService accountProvisioningService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(Account.ID_SEQUENCE)).thenReturn(NEXT_ID_BLOCK);
+
+        ProvisioningConfig config = new ProvisioningConfig();
+        config.setBatchSize(500);
+        AtomicLong ids = new AtomicLong();
+        accountProvisioningService = new AccountProvisioningService(jdbcTemplate, entityManagerFactory,
+                () -> "E" + ids.incrementAndGet(), changeFeedService, config, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createAccounts_ShouldTakeIdsFromReservedBlocksAndInsertInBatches() {
+        // Given
+        // Another instance took the block starting at 1001 in between
+        when(jdbcTemplate.queryForObject(NEXT_ID_BLOCK, Long.class)).thenReturn(1L, 2001L);
+        List<Money> balances = new ArrayList<>(Collections.nCopies(1200, Money.of("10.00")));
+        balances.set(0, Money.ZERO);
+
+        // When
+        long[] ids = accountProvisioningService.createAccounts(balances).toArray();
+
+        // Then
+        assertEquals(1200, ids.length);
+        assertEquals(1L, ids[0]);
+        assertEquals(1000L, ids[999]);
+        assertEquals(2001L, ids[1000]);
+        assertEquals(2200L, ids[1199]);
+
+        ArgumentCaptor<List<Object[]>> accounts = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO accounts"), accounts.capture());
+        assertEquals(List.of(500, 500, 200), accounts.getAllValues().stream().map(List::size).toList());
+        ArgumentCaptor<List<Object[]>> entries = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(startsWith("INSERT INTO ledger_entries"), entries.capture());
+        // No opening entry for the zero balance
+        assertEquals(List.of(499, 500, 200), entries.getAllValues().stream().map(List::size).toList());
+    }
+
+    @Test
+    void createAccounts_NegativeBalance_ShouldCreateNothing() {
+        // Given
+        List<Money> balances = List.of(Money.of("10.00"), Money.of("-1.00"));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> accountProvisioningService.createAccounts(balances));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+        verifyNoInteractions(transactionManager);
+    }
+}
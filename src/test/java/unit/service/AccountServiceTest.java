@@ -1,5 +1,6 @@
 package unit.service;
 
+import com.fintech.ledger_service.domain.Money;
 import com.fintech.ledger_service.entity.Account;
 import com.fintech.ledger_service.repository.AccountRepository;
 import com.fintech.ledger_service.service.AccountService;
@@ -10,7 +11,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.math.BigDecimal;
 import java.util.Optional;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
@@ -36,14 +36,14 @@ public class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
-        testAccount = new Account(123456789L, BigDecimal.valueOf(1000));
+        testAccount = new Account(123456789L, Money.of("1000"));
     }
 
     @Test
     void createAccount_ValidInput_ReturnsAccount() {
         // Given
         Long accountId = 123456789L;
-        BigDecimal initialBalance = new BigDecimal("500");
+        Money initialBalance = Money.of("500");
 
         Account savedAccount = new Account();
         savedAccount.setId(accountId);
@@ -69,7 +69,7 @@ public class AccountServiceTest {
     void createAccount_AccountAlreadyExists_ThrowsException() {
         // Given
         Long existingAccountId = 123456789L;
-        BigDecimal initialBalance = BigDecimal.valueOf(500);
+        Money initialBalance = Money.of("500");
 
         when(accountRepository.existsById(existingAccountId)).thenReturn(true);
 
@@ -88,7 +88,7 @@ public class AccountServiceTest {
     void createAccount_NegativeBalance_ThrowsException() {
         // Given
         Long accountId = 123456789L;
-        BigDecimal negativeBalance = BigDecimal.valueOf(-100);
+        Money negativeBalance = Money.of("-100");
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -107,7 +107,7 @@ public class AccountServiceTest {
         Long accountId = 123456789L;
         Account existingAccount = new Account();
         existingAccount.setId(accountId);
-        existingAccount.setBalance(new BigDecimal("1000"));
+        existingAccount.setBalance(Money.of("1000"));
 
         when(accountRepository.findById(accountId)).thenReturn(Optional.of(existingAccount));
 
@@ -117,7 +117,7 @@ public class AccountServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(accountId, result.getId());
-        assertEquals(new BigDecimal("1000"), result.getBalance());
+        assertEquals(Money.of("1000"), result.getBalance());
 
         verify(accountRepository).findById(accountId);
     }
@@ -143,16 +143,16 @@ public class AccountServiceTest {
         // Given
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
-        BigDecimal transferAmount = new BigDecimal("200");
+        Money transferAmount = Money.of("200");
 
         Account fromAccount = new Account();
         fromAccount.setId(fromAccountId);
-        fromAccount.setBalance(new BigDecimal("1000"));
+        fromAccount.setBalance(Money.of("1000"));
         fromAccount.setVersion(1L);
 
         Account toAccount = new Account();
         toAccount.setId(toAccountId);
-        toAccount.setBalance(new BigDecimal("500"));
+        toAccount.setBalance(Money.of("500"));
         toAccount.setVersion(1L);
 
         when(accountRepository.findByIdWithLock(fromAccountId)).thenReturn(Optional.of(fromAccount));
@@ -166,8 +166,8 @@ public class AccountServiceTest {
         accountService.transferFunds(fromAccountId, toAccountId, transferAmount);
 
         // Then - Check balances were updated by debit/credit methods
-        assertEquals(new BigDecimal("800"), fromAccount.getBalance());
-        assertEquals(new BigDecimal("700"), toAccount.getBalance());
+        assertEquals(Money.of("800"), fromAccount.getBalance());
+        assertEquals(Money.of("700"), toAccount.getBalance());
 
         verify(accountRepository).findByIdWithLock(fromAccountId);
         verify(accountRepository).findByIdWithLock(toAccountId);
@@ -180,15 +180,15 @@ public class AccountServiceTest {
         // Given
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
-        BigDecimal transferAmount = new BigDecimal("1500");  // More than available
+        Money transferAmount = Money.of("1500");  // More than available
 
         Account fromAccount = new Account();
         fromAccount.setId(fromAccountId);
-        fromAccount.setBalance(new BigDecimal("1000"));  // Less than transfer amount
+        fromAccount.setBalance(Money.of("1000"));  // Less than transfer amount
 
         Account toAccount = new Account();
         toAccount.setId(toAccountId);
-        toAccount.setBalance(new BigDecimal("500"));
+        toAccount.setBalance(Money.of("500"));
 
         // Mock both accounts to exist
         when(accountRepository.findByIdWithLock(fromAccountId)).thenReturn(Optional.of(fromAccount));
@@ -211,7 +211,7 @@ public class AccountServiceTest {
         // Given
         Long nonExistentFromId = 0L;
         Long toAccountId = 123456789L;
-        BigDecimal transferAmount = BigDecimal.valueOf(100);
+        Money transferAmount = Money.of("100");
 
         when(accountRepository.findByIdWithLock(nonExistentFromId)).thenReturn(Optional.empty());
 
@@ -231,9 +231,9 @@ public class AccountServiceTest {
         // Given
         Long fromAccountId = 123456789L;
         Long nonExistentToId = 0L;
-        BigDecimal transferAmount = BigDecimal.valueOf(100);
+        Money transferAmount = Money.of("100");
 
-        Account fromAccount = new Account(fromAccountId, BigDecimal.valueOf(1000));
+        Account fromAccount = new Account(fromAccountId, Money.of("1000"));
 
         when(accountRepository.findByIdWithLock(fromAccountId)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findByIdWithLock(nonExistentToId)).thenReturn(Optional.empty());
@@ -255,7 +255,7 @@ public class AccountServiceTest {
         // Given
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
-        BigDecimal zeroAmount = BigDecimal.ZERO;
+        Money zeroAmount = Money.ZERO;
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -272,7 +272,7 @@ public class AccountServiceTest {
         // Given
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
-        BigDecimal negativeAmount = BigDecimal.valueOf(-50);
+        Money negativeAmount = Money.of("-50");
 
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -0,0 +1,190 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.ShardingConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.entity.AccountShard;
+import com.fintech.ledger_service.exception.InsufficientFundsException;
+import com.fintech.ledger_service.exception.ShardSweepRequiredException;
+import com.fintech.ledger_service.repository.AccountRepository;
+import com.fintech.ledger_service.repository.AccountShardRepository;
+import com.fintech.ledger_service.service.AccountCache;
+import com.fintech.ledger_service.service.AccountShardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountShardServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountShardRepository accountShardRepository;
+
+    @Mock
+    private AccountCache accountCache;
+
+    private AccountShardService accountShardService;
+
+    @BeforeEach
+    void setUp() {
+        ShardingConfig shardingConfig = new ShardingConfig();
+        shardingConfig.setEnabled(true);
+        accountShardService = new AccountShardService(accountRepository, accountShardRepository, shardingConfig, accountCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shardAccount_ShouldSplitBalanceWithRemainderInFirstBucket() {
+        // Given
+        Long accountId = 1L;
+        Account account = new Account(accountId, Money.of("100.00"));
+
+        when(accountRepository.findByIdWithLock(accountId)).thenReturn(Optional.of(account));
+        when(accountRepository.save(account)).thenReturn(account);
+
+        // When
+        Account result = accountShardService.shardAccount(accountId, 3);
+
+        // Then
+        ArgumentCaptor<List<AccountShard>> shards = ArgumentCaptor.forClass(List.class);
+        verify(accountShardRepository).saveAll(shards.capture());
+
+        assertEquals(3, shards.getValue().size());
+        assertEquals(Money.of("33.34"), shards.getValue().get(0).getBalance());
+        assertEquals(Money.of("33.33"), shards.getValue().get(1).getBalance());
+        assertEquals(Money.of("33.33"), shards.getValue().get(2).getBalance());
+        assertEquals(Money.of("0.00"), result.getBalance());
+        assertEquals(3, result.getShardCount());
+        verify(accountCache).invalidateAfterCommit(accountId);
+    }
+
+    @Test
+    void shardAccount_AlreadySharded_ShouldThrowException() {
+        // Given
+        Long accountId = 1L;
+        Account account = new Account(accountId, Money.of("100.00"));
+        account.setShardCount(4);
+
+        when(accountRepository.findByIdWithLock(accountId)).thenReturn(Optional.of(account));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> accountShardService.shardAccount(accountId, 3));
+        verify(accountShardRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void lockShardsForDebit_SingleBucketCovers_ShouldLockOnlyThatBucket() {
+        // Given
+        Long accountId = 1L;
+        AccountShard richShard = new AccountShard(accountId, 1, Money.of("80.00"));
+
+        when(accountShardRepository.findShardBalances(accountId)).thenReturn(List.of(
+                new Object[]{0, Money.of("10.00")},
+                new Object[]{1, Money.of("80.00")}
+        ));
+        when(accountShardRepository.findShardWithLock(accountId, 1)).thenReturn(Optional.of(richShard));
+
+        // When
+        List<AccountShard> locked = accountShardService.lockShardsForDebit(accountId, 2, "TXN_1", Money.of("50.00"));
+
+        // Then
+        assertEquals(List.of(richShard), locked);
+        verify(accountShardRepository, never()).findAllByAccountIdWithLock(accountId);
+    }
+
+    @Test
+    void lockShardsForDebit_NoSingleBucketCovers_ShouldSweepAllBuckets() {
+        // Given
+        Long accountId = 1L;
+        AccountShard first = new AccountShard(accountId, 0, Money.of("30.00"));
+        AccountShard second = new AccountShard(accountId, 1, Money.of("30.00"));
+
+        when(accountShardRepository.findShardBalances(accountId)).thenReturn(List.of(
+                new Object[]{0, Money.of("30.00")},
+                new Object[]{1, Money.of("30.00")}
+        ));
+        when(accountShardRepository.findAllByAccountIdWithLock(accountId)).thenReturn(List.of(first, second));
+
+        // When
+        List<AccountShard> locked = accountShardService.lockShardsForDebit(accountId, 2, "TXN_1", Money.of("50.00"));
+        accountShardService.debit(locked, Money.of("50.00"));
+
+        // Then
+        assertEquals(Money.of("0.00"), first.getBalance());
+        assertEquals(Money.of("10.00"), second.getBalance());
+        verify(accountShardRepository, never()).findShardWithLock(any(), anyInt());
+    }
+
+    @Test
+    void lockShardsForDebit_LockedBucketDrainedMeanwhile_ShouldRequireSweepInsteadOfSweepingOutOfOrder() {
+        // Given
+        Long accountId = 1L;
+        AccountShard drained = new AccountShard(accountId, 1, Money.of("20.00"));
+
+        when(accountShardRepository.findShardBalances(accountId)).thenReturn(List.of(
+                new Object[]{0, Money.of("30.00")},
+                new Object[]{1, Money.of("80.00")}
+        ));
+        when(accountShardRepository.findShardWithLock(accountId, 1)).thenReturn(Optional.of(drained));
+
+        // When & Then
+        assertThrows(ShardSweepRequiredException.class,
+                () -> accountShardService.lockShardsForDebit(accountId, 2, "TXN_1", Money.of("50.00")));
+        verify(accountShardRepository, never()).findAllByAccountIdWithLock(accountId);
+    }
+
+    @Test
+    void lockAllShardsForDebit_ShouldLockEveryBucketInShardOrderWithoutPickingOne() {
+        // Given
+        Long accountId = 1L;
+        AccountShard first = new AccountShard(accountId, 0, Money.of("30.00"));
+        AccountShard second = new AccountShard(accountId, 1, Money.of("20.00"));
+        when(accountShardRepository.findAllByAccountIdWithLock(accountId)).thenReturn(List.of(first, second));
+
+        // When
+        List<AccountShard> locked = accountShardService.lockAllShardsForDebit(accountId, Money.of("50.00"));
+
+        // Then
+        assertEquals(List.of(first, second), locked);
+        verify(accountShardRepository, never()).findShardWithLock(any(), anyInt());
+    }
+
+    @Test
+    void lockShardsForDebit_TotalTooLow_ShouldThrowInsufficientFunds() {
+        // Given
+        Long accountId = 1L;
+        AccountShard first = new AccountShard(accountId, 0, Money.of("10.00"));
+        AccountShard second = new AccountShard(accountId, 1, Money.of("10.00"));
+
+        when(accountShardRepository.findShardBalances(accountId)).thenReturn(List.of(
+                new Object[]{0, Money.of("10.00")},
+                new Object[]{1, Money.of("10.00")}
+        ));
+        when(accountShardRepository.findAllByAccountIdWithLock(accountId)).thenReturn(List.of(first, second));
+
+        // When & Then
+        InsufficientFundsException exception = assertThrows(InsufficientFundsException.class,
+                () -> accountShardService.lockShardsForDebit(accountId, 2, "TXN_1", Money.of("50.00")));
+
+        assertTrue(exception.getMessage().contains("Insufficient funds"));
+        assertEquals(Money.of("10.00"), first.getBalance());
+    }
+}
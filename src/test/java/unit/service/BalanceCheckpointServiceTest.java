@@ -0,0 +1,119 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.CheckpointConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.BalanceCheckpoint;
+import com.fintech.ledger_service.repository.BalanceCheckpointRepository;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.service.BalanceCheckpointService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceCheckpointServiceTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CheckpointConfig checkpointConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @BeforeEach
+    void setUp() {
+        checkpointConfig = new CheckpointConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        balanceCheckpointService = new BalanceCheckpointService(ledgerEntryRepository, balanceCheckpointRepository,
+                checkpointConfig, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void getLedgerBalance_WithCheckpoint_ShouldOnlySumEntriesAfterIt() {
+        // Given
+        LocalDateTime checkpointAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(balanceCheckpointRepository.findById(1L))
+                .thenReturn(Optional.of(new BalanceCheckpoint(1L, Money.of("900.00"), checkpointAt)));
+        when(ledgerEntryRepository.sumAccountEntriesAfter(1L, checkpointAt)).thenReturn(new BigDecimal("-150.00"));
+
+        // When
+        Money balance = balanceCheckpointService.getLedgerBalance(1L);
+
+        // Then
+        assertEquals(Money.of("750.00"), balance);
+        verify(ledgerEntryRepository, never()).calculateAccountBalance(any());
+    }
+
+    @Test
+    void getLedgerBalance_WithoutCheckpoint_ShouldFallBackToFullSum() {
+        // Given
+        when(balanceCheckpointRepository.findById(1L)).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.calculateAccountBalance(1L)).thenReturn(new BigDecimal("750.00"));
+
+        // When
+        Money balance = balanceCheckpointService.getLedgerBalance(1L);
+
+        // Then
+        assertEquals(Money.of("750.00"), balance);
+    }
+
+    @Test
+    void getLedgerBalance_VerifyModeMismatch_ShouldReturnFullSumAndCountMismatch() {
+        // Given
+        checkpointConfig.setVerify(true);
+        LocalDateTime checkpointAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(balanceCheckpointRepository.findById(1L))
+                .thenReturn(Optional.of(new BalanceCheckpoint(1L, Money.of("900.00"), checkpointAt)));
+        when(ledgerEntryRepository.sumAccountEntriesAfter(1L, checkpointAt)).thenReturn(BigDecimal.ZERO);
+        when(ledgerEntryRepository.calculateAccountBalance(1L)).thenReturn(new BigDecimal("800.00"));
+
+        // When
+        Money balance = balanceCheckpointService.getLedgerBalance(1L);
+
+        // Then
+        assertEquals(Money.of("800.00"), balance);
+        assertEquals(1.0, meterRegistry.counter("ledger.checkpoint.mismatches").count());
+    }
+
+    @Test
+    void checkpointAll_ShouldAdvanceCheckpointByEntriesSincePreviousOne() {
+        // Given
+        LocalDateTime previous = LocalDateTime.now().minusHours(1);
+        when(balanceCheckpointRepository.findOldestCheckpointAt()).thenReturn(previous);
+        when(ledgerEntryRepository.findAccountIdsWithEntriesBetween(eq(previous), any())).thenReturn(List.of(1L));
+        when(balanceCheckpointRepository.findById(1L))
+                .thenReturn(Optional.of(new BalanceCheckpoint(1L, Money.of("900.00"), previous)));
+        when(ledgerEntryRepository.sumAccountEntriesBetween(eq(1L), eq(previous), any())).thenReturn(new BigDecimal("100.00"));
+
+        // When
+        balanceCheckpointService.checkpointAll();
+
+        // Then
+        verify(balanceCheckpointRepository).save(argThat(checkpoint ->
+                checkpoint.getBalance().compareTo(Money.of("1000.00")) == 0
+                        && checkpoint.getCheckpointAt().isAfter(previous)));
+    }
+}
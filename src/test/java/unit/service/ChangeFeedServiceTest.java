@@ -0,0 +1,102 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.ChangeFeedConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.entity.LedgerChange;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.repository.LedgerChangeRepository;
+import com.fintech.ledger_service.service.ChangeFeedService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTest {
+
+    @Mock
+    private LedgerChangeRepository ledgerChangeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ChangeFeedConfig config = new ChangeFeedConfig();
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        config.setEnabled(true);
+        changeFeedService = new ChangeFeedService(ledgerChangeRepository, config, Runnable::run,
+                transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void relay_ShouldPositionChangesAfterTheHeadAndWakeWaitingPoll() throws Exception {
+        // Given
+        LedgerChange debit = change("E1", Money.of("-10.00"), EntryType.DEBIT);
+        LedgerChange credit = change("E2", Money.of("10.00"), EntryType.CREDIT);
+        when(ledgerChangeRepository.findAfter(5L, Limit.of(10))).thenReturn(List.of(), List.of(debit, credit));
+        when(ledgerChangeRepository.findUnsequencedWithLock(any())).thenReturn(List.of(debit, credit));
+        // The replica has not seen the positions handed out yet
+        when(ledgerChangeRepository.findLastPosition()).thenReturn(5L)
+                .thenAnswer(invocation -> ReplicaRoutingDataSource.isPrimaryRequested() ? 7L : 5L);
+
+        CompletableFuture<List<LedgerChange>> poll = changeFeedService.poll(5L, 10, Duration.ofSeconds(10));
+        assertFalse(poll.isDone());
+
+        // When
+        changeFeedService.relay();
+
+        // Then
+        assertEquals(6L, debit.getPosition());
+        assertEquals(7L, credit.getPosition());
+        assertEquals(List.of(debit, credit), poll.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void poll_NothingCommittedWithinWait_ShouldReturnEmpty() throws Exception {
+        // Given
+        when(ledgerChangeRepository.findAfter(0L, Limit.of(10))).thenReturn(List.of());
+
+        // When
+        List<LedgerChange> changes = changeFeedService.poll(0L, 10, Duration.ofMillis(50)).get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void record_Disabled_ShouldWriteNothing() {
+        // Given
+        config.setEnabled(false);
+
+        // When
+        changeFeedService.record(List.of(new LedgerEntry("E1", "T1", 1L, Money.of("10.00"), EntryType.CREDIT)));
+
+        // Then
+        verify(ledgerChangeRepository, never()).saveAll(any());
+    }
+
+    private static LedgerChange change(String entryId, Money amount, EntryType type) {
+        return new LedgerChange(new LedgerEntry(entryId, "T1", 1L, amount, type));
+    }
+}
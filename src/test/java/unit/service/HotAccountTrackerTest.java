@@ -0,0 +1,62 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.HotAccountConfig;
+import com.fintech.ledger_service.domain.HotAccount;
+import com.fintech.ledger_service.service.HotAccountTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotAccountTrackerTest {
+
+    private HotAccountConfig config;
+    private HotAccountTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        config = new HotAccountConfig();
+        config.setTopK(4);
+        tracker = new HotAccountTracker(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getHotAccounts_ShouldReturnMostAccessedAccountsWithLockWait() {
+        // Given: two hot accounts among many cold ones
+        for (int i = 0; i < 1_000; i++) {
+            tracker.record(1L, TimeUnit.MILLISECONDS.toNanos(2));
+            if (i % 2 == 0) {
+                tracker.record(2L, 0);
+            }
+            tracker.record(1_000L + i, 0);
+        }
+
+        // When
+        List<HotAccount> hotAccounts = tracker.getHotAccounts(2);
+
+        // Then
+        assertEquals(2, hotAccounts.size());
+        assertEquals(1L, hotAccounts.get(0).accountId());
+        assertTrue(hotAccounts.get(0).accesses() >= 1_000);
+        assertEquals(2.0, hotAccounts.get(0).averageLockWaitMs(), 0.1);
+        assertEquals(2L, hotAccounts.get(1).accountId());
+    }
+
+    @Test
+    void rotate_ShouldKeepPreviousWindowThenForgetIt() {
+        // Given
+        tracker.record(7L, 0);
+
+        // When & Then
+        tracker.rotate();
+        assertEquals(7L, tracker.getHotAccounts(10).get(0).accountId());
+
+        tracker.rotate();
+        assertTrue(tracker.getHotAccounts(10).isEmpty());
+    }
+}
@@ -0,0 +1,162 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.IdempotencyConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.entity.IdempotencyKey;
+import com.fintech.ledger_service.repository.IdempotencyKeyRepository;
+import com.fintech.ledger_service.service.IdempotencyService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Claims run against a real H2 database so two transactions can race for the same primary key
+ */
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    private final ExecutorService claimers = Executors.newSingleThreadExecutor();
+    private Connection winner;
+    private Connection claimer;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        winner = DriverManager.getConnection(URL);
+        claimer = DriverManager.getConnection(URL);
+        try (Statement statement = winner.createStatement()) {
+            statement.execute("CREATE TABLE idempotency_keys (transfer_id VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                    "from_balance_after NUMERIC(19, 2), to_balance_after NUMERIC(19, 2), completed_at TIMESTAMP(6), " +
+                    "created_at TIMESTAMP(6) NOT NULL, expiry_bucket BIGINT NOT NULL)");
+        }
+        winner.setAutoCommit(false);
+        claimer.setAutoCommit(false);
+
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(invocation ->
+                invocation.<ReturningWork<?>>getArgument(0).execute(claimer));
+
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, new IdempotencyConfig(),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(idempotencyService, "entityManager", entityManager);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        claimers.shutdownNow();
+        winner.rollback();
+        claimer.rollback();
+        try (Statement statement = winner.createStatement()) {
+            statement.execute("DROP TABLE idempotency_keys");
+        }
+        winner.close();
+        claimer.close();
+    }
+
+    @Test
+    void claim_ConcurrentDuplicateCommitsFirst_ShouldReturnStoredResultAndKeepTransactionUsable() throws Exception {
+        // Given
+        insertKey(winner, "TXN_1");
+        Future<Optional<TransferResult>> claim = claimers.submit(() -> idempotencyService.claim("TXN_1"));
+        assertThrows(TimeoutException.class, () -> claim.get(200, TimeUnit.MILLISECONDS));
+
+        IdempotencyKey storedKey = new IdempotencyKey();
+        storedKey.setTransferId("TXN_1");
+        storedKey.setFromBalanceAfter(Money.of("90.00"));
+        storedKey.setToBalanceAfter(Money.of("60.00"));
+        storedKey.setCompletedAt(LocalDateTime.now());
+        when(idempotencyKeyRepository.findById("TXN_1")).thenReturn(Optional.of(storedKey));
+
+        // When
+        winner.commit();
+        Optional<TransferResult> result = claim.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isReplay());
+        assertEquals(Money.of("90.00"), result.get().getFromBalanceAfter());
+
+        // The failed insert was undone on its own; the claimer's transaction still commits its other work
+        insertKey(claimer, "TXN_2");
+        claimer.commit();
+        assertEquals(2, countKeys());
+    }
+
+    @Test
+    void claim_ConcurrentDuplicateRolledBack_ShouldClaimTheId() throws Exception {
+        // Given
+        insertKey(winner, "TXN_1");
+        Future<Optional<TransferResult>> claim = claimers.submit(() -> idempotencyService.claim("TXN_1"));
+        assertThrows(TimeoutException.class, () -> claim.get(200, TimeUnit.MILLISECONDS));
+
+        // When
+        winner.rollback();
+        Optional<TransferResult> result = claim.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertTrue(result.isEmpty());
+        claimer.commit();
+        assertEquals(1, countKeys());
+        verify(idempotencyKeyRepository, never()).findById(any());
+    }
+
+    private void insertKey(Connection connection, String transferId) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO idempotency_keys (transfer_id, created_at, expiry_bucket) VALUES (?, ?, 0)")) {
+            insert.setString(1, transferId);
+            insert.setObject(2, LocalDateTime.now());
+            insert.executeUpdate();
+        }
+    }
+
+    private int countKeys() throws SQLException {
+        try (Statement statement = winner.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM idempotency_keys")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
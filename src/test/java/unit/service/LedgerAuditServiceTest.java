@@ -0,0 +1,127 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.AuditConfig;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TimeWindow;
+import com.fintech.ledger_service.domain.TrialBalanceReport;
+import com.fintech.ledger_service.domain.UnbalancedTransfer;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.service.LedgerAuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LedgerAuditServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<LedgerEntry> entries = new ArrayList<>();
+    private LedgerAuditService ledgerAuditService;
+
+    @BeforeEach
+    void setUp() {
+        AuditConfig config = new AuditConfig();
+        config.setParallelism(2);
+
+        when(ledgerEntryRepository.findCreatedAtRange(any(), any())).thenAnswer(invocation -> {
+            List<LocalDateTime> times = inWindow(invocation.getArgument(0), invocation.getArgument(1))
+                    .map(LedgerEntry::getCreatedAt).toList();
+            Object[] range = times.isEmpty()
+                    ? new Object[]{null, null}
+                    : new Object[]{times.getFirst(), times.getLast()};
+            return List.<Object[]>of(range);
+        });
+        when(ledgerEntryRepository.streamTransferAmounts(any(), any())).thenAnswer(invocation ->
+                inWindow(invocation.getArgument(0), invocation.getArgument(1))
+                        .sorted(Comparator.comparing(LedgerEntry::getTransferId))
+                        .map(entry -> new Object[]{entry.getTransferId(), entry.getType(), entry.getAmount()}));
+        when(ledgerEntryRepository.findByTransferIdOrderByCreatedAt(anyString())).thenAnswer(invocation ->
+                entries.stream().filter(entry -> entry.getTransferId().equals(invocation.getArgument(0))).toList());
+
+        ledgerAuditService = new LedgerAuditService(ledgerEntryRepository, config, transactionManager);
+    }
+
+    @Test
+    void trialBalance_TransferSplitAcrossSlices_ShouldBalanceAndCountOnce() {
+        // Given
+        entry("INITIAL-1", 1L, "100.00", EntryType.CREDIT, 0);
+        entry("T1", 1L, "-10.00", EntryType.DEBIT, 1);
+        entry("T1", 2L, "10.00", EntryType.CREDIT, 2);
+        // Debit and credit fall into different slices
+        entry("T2", 1L, "-25.00", EntryType.DEBIT, 49);
+        entry("T2", 2L, "25.00", EntryType.CREDIT, 51);
+        entry("T3", 2L, "5.00", EntryType.DEBIT, 100);
+        entry("T3", 1L, "5.00", EntryType.CREDIT, 100);
+
+        // When
+        TrialBalanceReport report = ledgerAuditService.trialBalance(TimeWindow.ALL, 4);
+
+        // Then
+        assertTrue(report.isBalanced());
+        assertEquals(4, report.slices());
+        assertEquals(7, report.entries());
+        assertEquals(3, report.transfers());
+        assertEquals(Money.of("40.00"), report.totalDebits());
+        assertEquals(Money.of("40.00"), report.totalCredits());
+        assertEquals(Money.of("100.00"), report.openingBalances());
+    }
+
+    @Test
+    void trialBalance_ShouldReportOnlyTransfersUnbalancedOutsideTheWindowToo() {
+        // Given
+        entry("T1", 1L, "-10.00", EntryType.DEBIT, 10);
+        entry("T1", 2L, "9.00", EntryType.CREDIT, 20);
+        // Its credit falls after the audited window
+        entry("T2", 1L, "-30.00", EntryType.DEBIT, 40);
+        entry("T2", 2L, "30.00", EntryType.CREDIT, 90);
+
+        // When
+        TrialBalanceReport report = ledgerAuditService.trialBalance(
+                new TimeWindow(START, START.plusSeconds(60)), 2);
+
+        // Then
+        assertFalse(report.isBalanced());
+        assertEquals(1, report.unbalancedCount());
+        assertEquals(List.of(new UnbalancedTransfer("T1", Money.of("10.00"), Money.of("9.00"))), report.unbalanced());
+    }
+
+    private void entry(String transferId, long accountId, String amount, EntryType type, int second) {
+        LedgerEntry entry = new LedgerEntry(transferId + "-" + type, transferId, accountId, Money.of(amount), type);
+        entry.setCreatedAt(START.plusSeconds(second));
+        entries.add(entry);
+    }
+
+    private Stream<LedgerEntry> inWindow(LocalDateTime from, LocalDateTime to) {
+        return entries.stream()
+                .filter(entry -> !entry.getCreatedAt().isBefore(from) && entry.getCreatedAt().isBefore(to))
+                .sorted(Comparator.comparing(LedgerEntry::getCreatedAt));
+    }
+}
@@ -1,28 +1,73 @@
 package unit.service;
 
+import com.fintech.ledger_service.config.DatabaseConfig;
+import com.fintech.ledger_service.config.IdempotencyFilterConfig;
+import com.fintech.ledger_service.config.ReplicaConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.data.BatchMode;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.data.ReadConsistency;
+import com.fintech.ledger_service.domain.HistoryCursor;
+import com.fintech.ledger_service.domain.HistoryPage;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TimeWindow;
 import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.dto.TransferRequest;
 import com.fintech.ledger_service.entity.Account;
+import com.fintech.ledger_service.entity.AccountShard;
+import com.fintech.ledger_service.entity.LedgerEntry;
+import com.fintech.ledger_service.exception.ShardSweepRequiredException;
 import com.fintech.ledger_service.repository.AccountRepository;
 import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.service.AccountCache;
+import com.fintech.ledger_service.service.AccountShardService;
+import com.fintech.ledger_service.service.BalanceCheckpointService;
+import com.fintech.ledger_service.service.ChangeFeedService;
+import com.fintech.ledger_service.service.HotAccountTracker;
+import com.fintech.ledger_service.service.IdempotencyService;
 import com.fintech.ledger_service.service.LedgerService;
+import com.fintech.ledger_service.service.SequencerTransferEngine;
+import com.fintech.ledger_service.service.TransferIdFilter;
+import com.fintech.ledger_service.service.TransferMetrics;
+import com.fintech.ledger_service.util.IdGenerator;
+import com.fintech.ledger_service.util.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +80,48 @@ class LedgerServiceTest {
     @Mock
     private LedgerEntryRepository ledgerEntryRepository;
 
+    @Mock
+    private AccountShardService accountShardService;
+
+    @Mock
+    private SequencerTransferEngine sequencerTransferEngine;
+
+    @Mock
+    private TransferIdFilter transferIdFilter;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private BalanceCheckpointService balanceCheckpointService;
+
+    @Mock
+    private HotAccountTracker hotAccountTracker;
+
+    @Mock
+    private DatabaseConfig databaseConfig;
+
+    @Mock
+    private ReplicaConfig replicaConfig;
+
+    @Mock
+    private AccountCache accountCache;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    // Runs callbacks directly: with a mocked transaction manager there is nothing to begin or commit
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private IdGenerator idGenerator = new TimeOrderedIdGenerator(0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransferMetrics transferMetrics = new TransferMetrics(meterRegistry);
+
     @InjectMocks
     private LedgerService ledgerService;
 
@@ -42,7 +129,7 @@ class LedgerServiceTest {
     void createAccount_ShouldSucceed() {
         // Given
         Long accountId = 123456789L;
-        BigDecimal initialBalance = new BigDecimal("1000.00");
+        Money initialBalance = Money.of("1000.00");
 
         Account expectedAccount = new Account();
         expectedAccount.setId(accountId);
@@ -72,28 +159,101 @@ class LedgerServiceTest {
 
         // When & Then
         assertThrows(IllegalArgumentException.class,
-                () -> ledgerService.createAccount(accountId, new BigDecimal("1000.00")));
+                () -> ledgerService.createAccount(accountId, Money.of("1000.00")));
 
         verify(accountRepository).existsById(accountId);
         verify(accountRepository, never()).save(any(Account.class));
     }
 
+    @Test
+    void getAccount_CachedHit_ShouldNotReadDatabase() {
+        // Given
+        Long accountId = 123456789L;
+        when(accountCache.get(accountId)).thenReturn(Optional.of(account(accountId, "1000.00")));
+
+        // When
+        Account account = ledgerService.getAccount(accountId, ReadConsistency.CACHED);
+
+        // Then
+        assertEquals(Money.of("1000.00"), account.getBalance());
+        verify(accountRepository, never()).findById(any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void getAccount_Strict_ShouldBypassCacheAndRefreshIt() {
+        // Given
+        Long accountId = 123456789L;
+        Account stored = account(accountId, "900.00");
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(stored));
+
+        // When
+        Account account = ledgerService.getAccount(accountId, ReadConsistency.STRICT);
+
+        // Then
+        assertEquals(Money.of("900.00"), account.getBalance());
+        verify(accountCache, never()).get(any());
+        verify(accountCache).put(stored);
+    }
+
+    @Test
+    void getAccount_CachedMissServedByReplica_ShouldNotPopulateCache() {
+        // Given
+        Long accountId = 123456789L;
+        when(replicaConfig.isEnabled()).thenReturn(true);
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(account(accountId, "900.00")));
+
+        // When
+        // Set by the transaction manager for the read-only transaction, which the replica may serve
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Account account;
+        try {
+            account = ledgerService.getAccount(accountId, ReadConsistency.CACHED);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        // Then
+        assertEquals(Money.of("900.00"), account.getBalance());
+        verify(accountCache, never()).put(any());
+    }
+
+    @Test
+    void getAccount_CachedMissReadFromPrimary_ShouldPopulateCache() {
+        // Given
+        Long accountId = 123456789L;
+        Account stored = account(accountId, "900.00");
+        when(replicaConfig.isEnabled()).thenReturn(true);
+        when(accountRepository.findById(accountId)).thenReturn(Optional.of(stored));
+
+        // When
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            ReplicaRoutingDataSource.onPrimary(() -> ledgerService.getAccount(accountId, ReadConsistency.CACHED));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        // Then
+        verify(accountCache).put(stored);
+    }
+
     @Test
     void applyTransfer_HappyPath_ShouldSucceed() {
         // Given
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
         String transferId = "TXN_123";
-        BigDecimal transferAmount = new BigDecimal("250.00");
+        Money transferAmount = Money.of("250.00");
 
         Account fromAccount = new Account();
         fromAccount.setId(fromAccountId);
-        fromAccount.setBalance(new BigDecimal("1000.00"));
+        fromAccount.setBalance(Money.of("1000.00"));
         fromAccount.setVersion(1L);
 
         Account toAccount = new Account();
         toAccount.setId(toAccountId);
-        toAccount.setBalance(new BigDecimal("500.00"));
+        toAccount.setBalance(Money.of("500.00"));
         toAccount.setVersion(1L);
 
         // Mock finding accounts with lock
@@ -109,11 +269,22 @@ class LedgerServiceTest {
         // Then
         assertTrue(result.isSuccess());
         assertEquals("Transfer completed successfully", result.getMessage());
-        assertEquals(new BigDecimal("750.00"), result.getFromBalanceAfter());
-        assertEquals(new BigDecimal("750.00"), result.getToBalanceAfter());
+        assertEquals(Money.of("750.00"), result.getFromBalanceAfter());
+        assertEquals(Money.of("750.00"), result.getToBalanceAfter());
 
         verify(accountRepository).findByIdsWithLock(Arrays.asList(fromAccountId, toAccountId));
         verify(ledgerEntryRepository).existsByTransferId(transferId);
+        verify(idempotencyService).claim(transferId);
+        verify(idempotencyService).complete(result);
+        assertEquals(1.0, outcomeCount("success"));
+        assertEquals(1L, meterRegistry.get("ledger.operation.phase.duration")
+                .tags("operation", "apply-transfer", "phase", "lock-acquisition").timer().count());
+        assertEquals(1L, meterRegistry.get("ledger.operation.phase.duration")
+                .tags("operation", "apply-transfer", "phase", "entry-persistence").timer().count());
+        verify(hotAccountTracker).record(eq(fromAccountId), anyLong());
+        verify(hotAccountTracker).record(eq(toAccountId), anyLong());
+        verify(changeFeedService).record(argThat(entries -> entries.size() == 2));
+        verify(accountCache).putAfterCommit(List.of(fromAccount, toAccount));
     }
 
     @Test
@@ -122,16 +293,16 @@ class LedgerServiceTest {
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
         String transferId = "TXN_123";
-        BigDecimal transferAmount = new BigDecimal("150.00");
+        Money transferAmount = Money.of("150.00");
 
         Account fromAccount = new Account();
         fromAccount.setId(fromAccountId);
-        fromAccount.setBalance(new BigDecimal("100.00")); // Less than transfer amount
+        fromAccount.setBalance(Money.of("100.00")); // Less than transfer amount
         fromAccount.setVersion(1L);
 
         Account toAccount = new Account();
         toAccount.setId(toAccountId);
-        toAccount.setBalance(new BigDecimal("0.00"));
+        toAccount.setBalance(Money.of("0.00"));
         toAccount.setVersion(1L);
 
         when(accountRepository.findByIdsWithLock(Arrays.asList(fromAccountId, toAccountId)))
@@ -147,6 +318,103 @@ class LedgerServiceTest {
 
         verify(accountRepository).findByIdsWithLock(Arrays.asList(fromAccountId, toAccountId));
         verify(ledgerEntryRepository).existsByTransferId(transferId);
+        verify(idempotencyService).release(transferId);
+        verify(idempotencyService, never()).complete(any());
+        assertEquals(1.0, outcomeCount("insufficient-funds"));
+        assertEquals(0.0, outcomeCount("success"));
+    }
+
+    @Test
+    void applyTransfer_OptimisticConflict_ShouldRetryInNewTransactionAndSucceed() {
+        // Given
+        Long fromAccountId = 123456789L;
+        Long toAccountId = 987654321L;
+        String transferId = "TXN_123";
+
+        when(databaseConfig.isEnableOptimisticLocking()).thenReturn(true);
+        when(databaseConfig.getMaxRetries()).thenReturn(3);
+        // Each attempt reads the accounts afresh
+        when(accountRepository.findAllById(Arrays.asList(fromAccountId, toAccountId)))
+                .thenAnswer(invocation -> List.of(account(fromAccountId, "1000.00"), account(toAccountId, "500.00")));
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, fromAccountId))
+                .doNothing()
+                .when(ledgerEntryRepository).flush();
+
+        // When
+        TransferResult result = ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, Money.of("250.00"));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(Money.of("750.00"), result.getFromBalanceAfter());
+        assertEquals(Money.of("750.00"), result.getToBalanceAfter());
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(idempotencyService, times(2)).claim(transferId);
+        verify(accountRepository, never()).findByIdsWithLock(any());
+        assertEquals(1.0, meterRegistry.get("ledger.operation.retries").tags("operation", "apply-transfer").counter().count());
+        assertEquals(1.0, outcomeCount("success"));
+        assertEquals(0.0, outcomeCount("error"));
+        // Plain reads are not lock waits
+        assertEquals(0L, meterRegistry.get("ledger.operation.phase.duration")
+                .tags("operation", "apply-transfer", "phase", "lock-acquisition").timer().count());
+        verify(hotAccountTracker, times(2)).record(fromAccountId, 0);
+        verify(hotAccountTracker, times(2)).record(toAccountId, 0);
+    }
+
+    @Test
+    void applyTransfer_OptimisticConflictBeyondMaxRetries_ShouldFailWithoutError() {
+        // Given
+        Long fromAccountId = 123456789L;
+        Long toAccountId = 987654321L;
+        String transferId = "TXN_123";
+
+        when(databaseConfig.isEnableOptimisticLocking()).thenReturn(true);
+        when(databaseConfig.getMaxRetries()).thenReturn(2);
+        when(accountRepository.findAllById(Arrays.asList(fromAccountId, toAccountId)))
+                .thenAnswer(invocation -> List.of(account(fromAccountId, "1000.00"), account(toAccountId, "500.00")));
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, fromAccountId))
+                .when(ledgerEntryRepository).flush();
+
+        // When
+        TransferResult result = ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, Money.of("250.00"));
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().contains("conflicted"));
+
+        verify(transactionTemplate, times(3)).execute(any());
+        assertEquals(1.0, outcomeCount("conflict"));
+        assertEquals(0.0, outcomeCount("error"));
+    }
+
+    @Test
+    void applyTransfer_ShardBucketDrainedMeanwhile_ShouldRedoTransactionWithOrderedSweep() {
+        // Given
+        Long fromAccountId = 123456789L;
+        Long toAccountId = 987654321L;
+        String transferId = "TXN_123";
+        Money amount = Money.of("250.00");
+        List<AccountShard> shards = List.of(new AccountShard(fromAccountId, 0, Money.of("200.00")),
+                new AccountShard(fromAccountId, 1, Money.of("100.00")));
+
+        when(accountShardService.isEnabled()).thenReturn(true);
+        when(accountShardService.findShardCounts(List.of(fromAccountId, toAccountId))).thenReturn(Map.of(fromAccountId, 2));
+        when(accountRepository.findByIdsWithLock(List.of(toAccountId))).thenReturn(List.of(account(toAccountId, "500.00")));
+        when(accountShardService.lockShardsForDebit(fromAccountId, 2, transferId, amount))
+                .thenThrow(new ShardSweepRequiredException("Shard 1 drained"));
+        when(accountShardService.lockAllShardsForDebit(fromAccountId, amount)).thenReturn(shards);
+        when(accountShardService.getTotalBalance(fromAccountId)).thenReturn(Money.of("50.00"));
+
+        // When
+        TransferResult result = ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, amount);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(Money.of("750.00"), result.getToBalanceAfter());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(idempotencyService, times(2)).claim(transferId);
+        verify(accountShardService).debit(shards, amount);
+        assertEquals(0.0, outcomeCount("error"));
     }
 
     @Test
@@ -161,17 +429,17 @@ class LedgerServiceTest {
         // Mock getAccount calls for idempotent response
         Account fromAccount = new Account();
         fromAccount.setId(fromAccountId);
-        fromAccount.setBalance(new BigDecimal("750.00"));
+        fromAccount.setBalance(Money.of("750.00"));
 
         Account toAccount = new Account();
         toAccount.setId(toAccountId);
-        toAccount.setBalance(new BigDecimal("750.00"));
+        toAccount.setBalance(Money.of("750.00"));
 
         when(accountRepository.findById(fromAccountId)).thenReturn(Optional.of(fromAccount));
         when(accountRepository.findById(toAccountId)).thenReturn(Optional.of(toAccount));
 
         // When
-        TransferResult result = ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, new BigDecimal("250.00"));
+        TransferResult result = ledgerService.applyTransfer(transferId, fromAccountId, toAccountId, Money.of("250.00"));
 
         // Then
         assertTrue(result.isSuccess());
@@ -182,13 +450,38 @@ class LedgerServiceTest {
         verify(accountRepository).findById(toAccountId);
     }
 
+    @Test
+    void applyTransfer_StoredResult_ShouldReplayOriginalBalancesWithoutReadingAccounts() {
+        // Given
+        String transferId = "TXN_123";
+        LocalDateTime processedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        TransferResult stored = TransferResult.alreadyProcessed(transferId,
+                Money.of("750.00"), Money.of("750.00"), processedAt);
+
+        when(idempotencyService.claim(transferId)).thenReturn(Optional.of(stored));
+
+        // When
+        TransferResult result = ledgerService.applyTransfer(transferId, 123456789L, 987654321L, Money.of("250.00"));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals("Transfer already processed", result.getMessage());
+        assertEquals(Money.of("750.00"), result.getFromBalanceAfter());
+        assertEquals(processedAt, result.getTimestamp());
+
+        verify(ledgerEntryRepository, never()).existsByTransferId(any());
+        verify(accountRepository, never()).findById(any());
+        verify(accountRepository, never()).findByIdsWithLock(any());
+        assertEquals(1.0, outcomeCount("replay"));
+    }
+
     @Test
     void applyTransfer_AccountNotFound_ShouldThrowException() {
         // Given
         Long fromAccountId = 123456789L;
         Long toAccountId = 987654321L;
         String transferId = "TXN_123";
-        BigDecimal transferAmount = new BigDecimal("100.00");
+        Money transferAmount = Money.of("100.00");
 
         when(ledgerEntryRepository.existsByTransferId(transferId)).thenReturn(false);
         when(accountRepository.findByIdsWithLock(Arrays.asList(fromAccountId, toAccountId)))
@@ -209,21 +502,295 @@ class LedgerServiceTest {
     void applyTransfer_InvalidInputs_ShouldThrowException() {
         // Test null/empty transfer ID
         assertThrows(IllegalArgumentException.class,
-                () -> ledgerService.applyTransfer(null, 123456789L, 987654321L, BigDecimal.TEN));
+                () -> ledgerService.applyTransfer(null, 123456789L, 987654321L, Money.of("10")));
 
         assertThrows(IllegalArgumentException.class,
-                () -> ledgerService.applyTransfer("", 123456789L, 987654321L, BigDecimal.TEN));
+                () -> ledgerService.applyTransfer("", 123456789L, 987654321L, Money.of("10")));
 
         // Test same account transfer
         assertThrows(IllegalArgumentException.class,
-                () -> ledgerService.applyTransfer("txn1", 123456789L, 123456789L, BigDecimal.TEN));
+                () -> ledgerService.applyTransfer("txn1", 123456789L, 123456789L, Money.of("10")));
 
         // Test negative amount
         assertThrows(IllegalArgumentException.class,
-                () -> ledgerService.applyTransfer("txn1", 123456789L, 987654321L, new BigDecimal("-10")));
+                () -> ledgerService.applyTransfer("txn1", 123456789L, 987654321L, Money.of("-10")));
 
         // Test zero amount
         assertThrows(IllegalArgumentException.class,
-                () -> ledgerService.applyTransfer("txn1", 123456789L, 987654321L, BigDecimal.ZERO));
+                () -> ledgerService.applyTransfer("txn1", 123456789L, 987654321L, Money.ZERO));
+    }
+
+    @Test
+    void applyTransfers_IndependentMode_ShouldApplyEachTransferOnItsOwn() {
+        // Given
+        Long firstAccountId = 1L;
+        Long secondAccountId = 2L;
+
+        Account firstAccount = new Account(firstAccountId, Money.of("100.00"));
+        Account secondAccount = new Account(secondAccountId, Money.of("50.00"));
+
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("TXN_1", firstAccountId, secondAccountId, new BigDecimal("80.00")),
+                new TransferRequest("TXN_2", firstAccountId, secondAccountId, new BigDecimal("80.00")),
+                new TransferRequest("TXN_3", secondAccountId, firstAccountId, new BigDecimal("30.00"))
+        );
+
+        when(ledgerEntryRepository.findExistingTransferIds(any())).thenReturn(List.of());
+        when(accountRepository.findByIdsWithLock(List.of(firstAccountId, secondAccountId)))
+                .thenReturn(List.of(firstAccount, secondAccount));
+
+        // When
+        List<TransferResult> results = ledgerService.applyTransfers(transfers, BatchMode.INDEPENDENT);
+
+        // Then
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getMessage().contains("Insufficient funds"));
+        assertTrue(results.get(2).isSuccess());
+
+        assertEquals(Money.of("50.00"), firstAccount.getBalance());
+        assertEquals(Money.of("100.00"), secondAccount.getBalance());
+
+        verify(accountRepository).findByIdsWithLock(List.of(firstAccountId, secondAccountId));
+        verify(ledgerEntryRepository).saveAll(argThat(entries -> ((List<?>) entries).size() == 4));
+        verify(idempotencyService).complete(results.get(0));
+        verify(idempotencyService).release("TXN_2");
+        verify(idempotencyService).complete(results.get(2));
+    }
+
+    @Test
+    void applyTransfers_AllOrNothingMode_ShouldRollBackWholeBatchOnFailure() {
+        // Given
+        Long firstAccountId = 1L;
+        Long secondAccountId = 2L;
+
+        Account firstAccount = new Account(firstAccountId, Money.of("100.00"));
+        Account secondAccount = new Account(secondAccountId, Money.of("50.00"));
+
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("TXN_1", firstAccountId, secondAccountId, new BigDecimal("80.00")),
+                new TransferRequest("TXN_2", firstAccountId, secondAccountId, new BigDecimal("80.00"))
+        );
+
+        when(ledgerEntryRepository.findExistingTransferIds(any())).thenReturn(List.of());
+        when(accountRepository.findByIdsWithLock(List.of(firstAccountId, secondAccountId)))
+                .thenReturn(List.of(firstAccount, secondAccount));
+
+        // When
+        List<TransferResult> results = ledgerService.applyTransfers(transfers, BatchMode.ALL_OR_NOTHING);
+
+        // Then
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getMessage().startsWith("Batch rolled back"));
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getMessage().contains("Insufficient funds"));
+
+        assertEquals(Money.of("100.00"), firstAccount.getBalance());
+        assertEquals(Money.of("50.00"), secondAccount.getBalance());
+
+        verify(ledgerEntryRepository, never()).saveAll(any());
+        verify(idempotencyService).release("TXN_1");
+        verify(idempotencyService).release("TXN_2");
+        verify(idempotencyService, never()).complete(any());
+    }
+
+    @Test
+    void applyTransfers_AllOrNothingModeWithRepeatedTransferId_ShouldFailEveryCopy() {
+        // Given
+        Long firstAccountId = 1L;
+        Long secondAccountId = 2L;
+
+        Account firstAccount = new Account(firstAccountId, Money.of("100.00"));
+        Account secondAccount = new Account(secondAccountId, Money.of("50.00"));
+
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("TXN_1", firstAccountId, secondAccountId, new BigDecimal("10.00")),
+                new TransferRequest("TXN_1", firstAccountId, secondAccountId, new BigDecimal("10.00")),
+                new TransferRequest("TXN_2", firstAccountId, secondAccountId, new BigDecimal("500.00"))
+        );
+
+        when(ledgerEntryRepository.findExistingTransferIds(any())).thenReturn(List.of());
+        when(accountRepository.findByIdsWithLock(List.of(firstAccountId, secondAccountId)))
+                .thenReturn(List.of(firstAccount, secondAccount));
+
+        // When
+        List<TransferResult> results = ledgerService.applyTransfers(transfers, BatchMode.ALL_OR_NOTHING);
+
+        // Then
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getMessage().startsWith("Batch rolled back"));
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getMessage().startsWith("Batch rolled back"));
+        assertTrue(results.get(2).getMessage().contains("Insufficient funds"));
+        assertEquals(Money.of("100.00"), firstAccount.getBalance());
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void applyTransfers_TransferIdClaimedBySingleTransfer_ShouldReturnStoredResultWithoutApplying() {
+        // Given
+        Long firstAccountId = 1L;
+        Long secondAccountId = 2L;
+
+        Account firstAccount = new Account(firstAccountId, Money.of("100.00"));
+        Account secondAccount = new Account(secondAccountId, Money.of("50.00"));
+        TransferResult storedResult = TransferResult.alreadyProcessed("TXN_1", Money.of("90.00"), Money.of("60.00"));
+
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("TXN_1", firstAccountId, secondAccountId, new BigDecimal("10.00")),
+                new TransferRequest("TXN_2", firstAccountId, secondAccountId, new BigDecimal("10.00"))
+        );
+
+        when(idempotencyService.claim("TXN_1")).thenReturn(Optional.of(storedResult));
+        when(ledgerEntryRepository.findExistingTransferIds(any())).thenReturn(List.of());
+        when(accountRepository.findByIdsWithLock(List.of(firstAccountId, secondAccountId)))
+                .thenReturn(List.of(firstAccount, secondAccount));
+
+        // When
+        List<TransferResult> results = ledgerService.applyTransfers(transfers, BatchMode.INDEPENDENT);
+
+        // Then
+        assertSame(storedResult, results.get(0));
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(Money.of("90.00"), firstAccount.getBalance());
+        verify(ledgerEntryRepository).saveAll(argThat(entries -> ((List<?>) entries).size() == 2));
+        verify(idempotencyService).complete(results.get(1));
+        verify(idempotencyService, never()).complete(storedResult);
+        verify(idempotencyService, never()).release("TXN_1");
+    }
+
+    @Test
+    void applyTransfers_DuplicateTransferIds_ShouldBeReportedAsAlreadyProcessed() {
+        // Given
+        Long firstAccountId = 1L;
+        Long secondAccountId = 2L;
+
+        Account firstAccount = new Account(firstAccountId, Money.of("100.00"));
+        Account secondAccount = new Account(secondAccountId, Money.of("50.00"));
+
+        List<TransferRequest> transfers = List.of(
+                new TransferRequest("TXN_OLD", firstAccountId, secondAccountId, new BigDecimal("10.00")),
+                new TransferRequest("TXN_NEW", firstAccountId, secondAccountId, new BigDecimal("10.00")),
+                new TransferRequest("TXN_NEW", firstAccountId, secondAccountId, new BigDecimal("10.00"))
+        );
+
+        when(ledgerEntryRepository.findExistingTransferIds(any())).thenReturn(List.of("TXN_OLD"));
+        when(accountRepository.findByIdsWithLock(List.of(firstAccountId, secondAccountId)))
+                .thenReturn(List.of(firstAccount, secondAccount));
+
+        // When
+        List<TransferResult> results = ledgerService.applyTransfers(transfers, BatchMode.INDEPENDENT);
+
+        // Then
+        assertEquals("Transfer already processed", results.get(0).getMessage());
+        assertEquals("Transfer completed successfully", results.get(1).getMessage());
+        assertEquals("Transfer already processed", results.get(2).getMessage());
+        assertEquals(Money.of("90.00"), firstAccount.getBalance());
+    }
+
+    @Test
+    void applyTransfer_RetryOfBatchAppliedTransferWithFilterEnabled_ShouldReplayNotReapply() throws InterruptedException {
+        // Given
+        TransferIdFilter filter = seededTransferIdFilter();
+        when(transferIdFilter.isDefinitelyNew(any())).thenAnswer(invocation -> filter.isDefinitelyNew(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            filter.record(invocation.getArgument(0));
+            return null;
+        }).when(transferIdFilter).record(any());
+
+        Long firstAccountId = 1L;
+        Long secondAccountId = 2L;
+        Account firstAccount = new Account(firstAccountId, Money.of("100.00"));
+        Account secondAccount = new Account(secondAccountId, Money.of("50.00"));
+
+        when(ledgerEntryRepository.findExistingTransferIds(any())).thenReturn(List.of());
+        when(accountRepository.findByIdsWithLock(List.of(firstAccountId, secondAccountId)))
+                .thenReturn(List.of(firstAccount, secondAccount));
+        ledgerService.applyTransfers(List.of(
+                new TransferRequest("TXN_1", firstAccountId, secondAccountId, new BigDecimal("10.00"))
+        ), BatchMode.INDEPENDENT);
+
+        when(ledgerEntryRepository.existsByTransferId("TXN_1")).thenReturn(true);
+        when(accountRepository.findById(firstAccountId)).thenReturn(Optional.of(firstAccount));
+        when(accountRepository.findById(secondAccountId)).thenReturn(Optional.of(secondAccount));
+
+        // When
+        TransferResult result = ledgerService.applyTransfer("TXN_1", firstAccountId, secondAccountId, Money.of("10.00"));
+
+        // Then
+        assertTrue(result.isReplay());
+        assertEquals(Money.of("90.00"), firstAccount.getBalance());
+        verify(ledgerEntryRepository).existsByTransferId("TXN_1");
+        verify(accountRepository).findByIdsWithLock(any());
+    }
+
+    @Test
+    void getAccountHistoryPage_MoreEntriesThanLimit_ShouldReturnCursorAfterLastEntry() {
+        // Given
+        Long accountId = 123456789L;
+        LedgerEntry newest = new LedgerEntry("E3", "TXN_3", accountId, Money.of("10.00"), EntryType.CREDIT);
+        LedgerEntry middle = new LedgerEntry("E2", "TXN_2", accountId, Money.of("10.00"), EntryType.CREDIT);
+        LedgerEntry oldest = new LedgerEntry("E1", "TXN_1", accountId, Money.of("10.00"), EntryType.CREDIT);
+
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        when(ledgerEntryRepository.findHistoryPage(accountId, TimeWindow.BEGINNING, TimeWindow.END, Limit.of(3))).thenReturn(List.of(newest, middle, oldest));
+
+        // When
+        HistoryPage page = ledgerService.getAccountHistoryPage(accountId, TimeWindow.ALL, null, 2);
+
+        // Then
+        assertEquals(List.of(newest, middle), page.entries());
+        assertEquals(new HistoryCursor(middle.getCreatedAt(), "E2"), page.nextCursor());
+    }
+
+    @Test
+    void getAccountHistoryPage_WithCursor_ShouldSeekPastItAndEndOnShortPage() {
+        // Given
+        Long accountId = 123456789L;
+        HistoryCursor cursor = new HistoryCursor(LocalDateTime.of(2025, 1, 1, 12, 0), "E2");
+        TimeWindow window = TimeWindow.of(LocalDateTime.of(2025, 1, 1, 0, 0), null);
+        LedgerEntry oldest = new LedgerEntry("E1", "TXN_1", accountId, Money.of("10.00"), EntryType.CREDIT);
+
+        when(accountRepository.existsById(accountId)).thenReturn(true);
+        when(ledgerEntryRepository.findHistoryPageBefore(accountId, window.from(), TimeWindow.END,
+                cursor.createdAt(), "E2", Limit.of(3))).thenReturn(List.of(oldest));
+
+        // When
+        HistoryPage page = ledgerService.getAccountHistoryPage(accountId, window, HistoryCursor.decode(cursor.encode()), 2);
+
+        // Then
+        assertEquals(List.of(oldest), page.entries());
+        assertNull(page.nextCursor());
+    }
+
+    private static TransferIdFilter seededTransferIdFilter() throws InterruptedException {
+        IdempotencyFilterConfig config = new IdempotencyFilterConfig();
+        config.setEnabled(true);
+        config.setExpectedInsertions(1000);
+        LedgerEntryRepository seedRepository = mock(LedgerEntryRepository.class);
+        when(seedRepository.streamTransferIdsSince(any())).thenReturn(Stream.empty());
+
+        TransferIdFilter filter = new TransferIdFilter(seedRepository, config,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        filter.seed();
+        for (int i = 0; i < 500 && !filter.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(filter.isReady());
+        return filter;
+    }
+
+    private Account account(Long id, String balance) {
+        Account account = new Account();
+        account.setId(id);
+        account.setBalance(Money.of(balance));
+        account.setVersion(1L);
+        return account;
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.get("ledger.operation.outcomes")
+                .tags("operation", "apply-transfer", "outcome", outcome).counter().count();
     }
 }
@@ -0,0 +1,124 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.ReconciliationConfig;
+import com.fintech.ledger_service.domain.BalanceMismatch;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.ReconciliationReport;
+import com.fintech.ledger_service.entity.ReconciliationRun;
+import com.fintech.ledger_service.repository.AccountRepository;
+import com.fintech.ledger_service.repository.AccountShardRepository;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.repository.ReconciliationRunRepository;
+import com.fintech.ledger_service.service.ReconciliationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReconciliationServiceTest {
+
+    // Account 3 is sharded; account 4 has drifted from its ledger
+    private static final Map<Long, Money> STORED = Map.of(
+            1L, Money.of("100.00"), 2L, Money.of("50.00"), 3L, Money.ZERO, 4L, Money.of("75.00"), 5L, Money.ZERO);
+    private static final Map<Long, BigDecimal> SHARDS = Map.of(3L, new BigDecimal("30.00"));
+    private static final Map<Long, BigDecimal> LEDGER = Map.of(
+            1L, new BigDecimal("100.00"), 2L, new BigDecimal("50.00"), 3L, new BigDecimal("30.00"),
+            4L, new BigDecimal("70.00"));
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountShardRepository accountShardRepository;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private ReconciliationRunRepository reconciliationRunRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        ReconciliationConfig config = new ReconciliationConfig();
+        config.setParallelism(2);
+        config.setRangeSize(2);
+
+        when(accountRepository.findMinId()).thenReturn(1L);
+        when(accountRepository.findMaxId()).thenReturn(5L);
+        when(accountRepository.findBalancesInRange(anyLong(), anyLong()))
+                .thenAnswer(invocation -> rows(STORED, invocation.getArgument(0), invocation.getArgument(1)));
+        when(accountShardRepository.sumBalancesInRange(anyLong(), anyLong()))
+                .thenAnswer(invocation -> rows(SHARDS, invocation.getArgument(0), invocation.getArgument(1)));
+        when(ledgerEntryRepository.sumAccountBalancesInRange(anyLong(), anyLong()))
+                .thenAnswer(invocation -> rows(LEDGER, invocation.getArgument(0), invocation.getArgument(1)));
+
+        reconciliationService = new ReconciliationService(accountRepository, accountShardRepository,
+                ledgerEntryRepository, reconciliationRunRepository, config, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void reconcile_ShouldCheckEveryRangeAndReportOnlyDriftedAccounts() {
+        // Given
+        when(reconciliationRunRepository.findTopByOrderByIdDesc()).thenReturn(Optional.empty());
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile().orElseThrow();
+
+        // Then
+        assertEquals(5, report.accountsChecked());
+        assertEquals(1, report.mismatchCount());
+        assertEquals(List.of(new BalanceMismatch(4L, Money.of("75.00"), Money.of("70.00"))), report.mismatches());
+        assertNotNull(report.finishedAt());
+    }
+
+    @Test
+    void reconcile_UnfinishedRun_ShouldResumeFromItsCheckpoint() {
+        // Given
+        ReconciliationRun interrupted = new ReconciliationRun(1L, 6L);
+        interrupted.setNextAccountId(3L);
+        interrupted.setAccountsChecked(2);
+        when(reconciliationRunRepository.findTopByOrderByIdDesc()).thenReturn(Optional.of(interrupted));
+
+        // When
+        ReconciliationReport report = reconciliationService.reconcile().orElseThrow();
+
+        // Then
+        assertEquals(5, report.accountsChecked());
+        assertEquals(6L, interrupted.getNextAccountId());
+        verify(accountRepository, never()).findBalancesInRange(eq(1L), anyLong());
+        verify(accountRepository, never()).findMinId();
+    }
+
+    private static <V> List<Object[]> rows(Map<Long, V> values, long from, long to) {
+        return values.entrySet().stream()
+                .filter(entry -> entry.getKey() >= from && entry.getKey() < to)
+                .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                .toList();
+    }
+}
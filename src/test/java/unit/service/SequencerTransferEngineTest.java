@@ -0,0 +1,155 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.DatabaseConfig;
+import com.fintech.ledger_service.config.JournalConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.config.SequencerConfig;
+import com.fintech.ledger_service.data.TransferEngineType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.repository.AccountRepository;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.service.ChangeFeedService;
+import com.fintech.ledger_service.service.SequencerTransferEngine;
+import com.fintech.ledger_service.service.TransferIdFilter;
+import com.fintech.ledger_service.service.TransferJournal;
+import com.fintech.ledger_service.util.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SequencerTransferEngineTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private TransferIdFilter transferIdFilter;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SequencerTransferEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setEngine(TransferEngineType.SEQUENCER);
+        SequencerConfig sequencerConfig = new SequencerConfig();
+        sequencerConfig.setPartitions(2);
+
+        when(ledgerEntryRepository.streamAccountBalances()).thenReturn(Stream.of(
+                new Object[]{1L, new BigDecimal("100.00")},
+                new Object[]{2L, new BigDecimal("50.00")}
+        ));
+        when(ledgerEntryRepository.existsByTransferId(anyString())).thenReturn(false);
+
+        engine = new SequencerTransferEngine(accountRepository, ledgerEntryRepository,
+                databaseConfig, sequencerConfig, transferIdFilter, new TimeOrderedIdGenerator(0),
+                new TransferJournal(new JournalConfig()), changeFeedService, transactionManager);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void applyTransfer_SufficientFunds_ShouldUpdateBalancesAndPersistAsynchronously() {
+        // When
+        TransferResult result = engine.applyTransfer("TXN_1", 1L, 2L, Money.of("30.00"));
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals(Money.of("70.00"), result.getFromBalanceAfter());
+        assertEquals(Money.of("80.00"), result.getToBalanceAfter());
+        assertEquals(Money.of("70.00"), engine.currentBalance(1L).orElseThrow());
+
+        verify(ledgerEntryRepository, timeout(2000)).saveAll(argThat(entries -> ((List<?>) entries).size() == 2));
+        verify(accountRepository, timeout(2000)).applyBalanceDelta(eq(1L), eq(Money.of("-30.00")), any());
+        verify(accountRepository, timeout(2000)).applyBalanceDelta(eq(2L), eq(Money.of("30.00")), any());
+    }
+
+    @Test
+    void applyTransfer_InsufficientFunds_ShouldFailWithoutPersisting() {
+        // When
+        TransferResult result = engine.applyTransfer("TXN_1", 2L, 1L, Money.of("80.00"));
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().contains("Insufficient funds"));
+        assertEquals(Money.of("50.00"), engine.currentBalance(2L).orElseThrow());
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void applyTransfer_DuplicateTransferId_ShouldNotApplyTwice() {
+        // Given - the first transfer may already have been persisted by the time the retry arrives
+        when(ledgerEntryRepository.existsByTransferId("TXN_1")).thenReturn(false, true);
+
+        // When
+        engine.applyTransfer("TXN_1", 1L, 2L, Money.of("10.00"));
+        TransferResult duplicate = engine.applyTransfer("TXN_1", 1L, 2L, Money.of("10.00"));
+
+        // Then
+        assertEquals("Transfer already processed", duplicate.getMessage());
+        assertEquals(Money.of("90.00"), engine.currentBalance(1L).orElseThrow());
+    }
+
+    @Test
+    void applyTransfer_RetryWhileReplicaLags_ShouldNotApplyTwice() {
+        // Given - the first attempt is on the primary but not yet on the replica
+        when(ledgerEntryRepository.existsByTransferId("TXN_1"))
+                .thenAnswer(invocation -> ReplicaRoutingDataSource.isPrimaryRequested());
+
+        // When
+        TransferResult retry = engine.applyTransfer("TXN_1", 1L, 2L, Money.of("10.00"));
+
+        // Then
+        assertEquals("Transfer already processed", retry.getMessage());
+        assertEquals(Money.of("100.00"), engine.currentBalance(1L).orElseThrow());
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void applyTransfer_UnknownAccount_ShouldThrowException() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> engine.applyTransfer("TXN_1", 1L, 3L, Money.of("10.00")));
+
+        assertEquals("To account not found: 3", exception.getMessage());
+        assertEquals(Money.of("100.00"), engine.currentBalance(1L).orElseThrow());
+    }
+}
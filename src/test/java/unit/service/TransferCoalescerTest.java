@@ -0,0 +1,204 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.GroupCommitConfig;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.domain.TransferResult;
+import com.fintech.ledger_service.service.LedgerService;
+import com.fintech.ledger_service.service.SequencerTransferEngine;
+import com.fintech.ledger_service.service.TransferCoalescer;
+import com.fintech.ledger_service.service.TransferMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransferCoalescerTest {
+
+    private static final Money AMOUNT = Money.of("10.00");
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private SequencerTransferEngine sequencerTransferEngine;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SimpleTransactionStatus status = new SimpleTransactionStatus();
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private TransferCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        GroupCommitConfig config = new GroupCommitConfig();
+        config.setEnabled(true);
+        // Batches close on size, so each test's transfers are committed together
+        config.setWindow(Duration.ofSeconds(10));
+        config.setMaxBatchSize(3);
+
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenReturn(mock(Savepoint.class));
+        when(ledgerService.applyTransferInCurrentTransaction(anyString(), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> TransferResult.success(invocation.getArgument(0), AMOUNT, AMOUNT));
+
+        coalescer = new TransferCoalescer(ledgerService, sequencerTransferEngine, config, transactionManager,
+                new TransferMetrics(meterRegistry), meterRegistry);
+        ReflectionTestUtils.setField(coalescer, "entityManager", entityManager);
+        coalescer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void applyTransfer_OneFailingTransfer_ShouldRollBackOnlyItsSavepoint() throws Exception {
+        // Given
+        when(ledgerService.applyTransferInCurrentTransaction(eq("T2"), anyLong(), anyLong(), any()))
+                .thenThrow(new IllegalArgumentException("To account not found: 9"));
+
+        // When
+        Future<TransferResult> first = submit("T1");
+        Future<TransferResult> second = submit("T2");
+        Future<TransferResult> third = submit("T3");
+
+        // Then
+        assertTrue(first.get().isSuccess());
+        assertEquals("T3", third.get().getTransferId());
+        ExecutionException failure = assertThrows(ExecutionException.class, second::get);
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+
+        verify(transactionManager, times(1)).commit(status);
+        verify(session, times(3)).doWork(any());
+        verify(entityManager).clear();
+        verify(ledgerService, never()).applyTransfer(anyString(), anyLong(), anyLong(), any());
+        assertEquals(3L, operationCount());
+    }
+
+    @Test
+    void applyTransfer_DatabaseErrorPoisoningTransaction_ShouldApplyBatchIndividually() throws Exception {
+        // Given
+        when(ledgerService.applyTransferInCurrentTransaction(eq("T2"), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> {
+                    status.setRollbackOnly();
+                    throw new OptimisticLockingFailureException("Row was updated by another transaction");
+                });
+        when(ledgerService.applyTransfer(anyString(), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> TransferResult.success(invocation.getArgument(0), AMOUNT, AMOUNT));
+
+        // When
+        Future<TransferResult> first = submit("T1");
+        Future<TransferResult> second = submit("T2");
+        Future<TransferResult> third = submit("T3");
+
+        // Then
+        assertTrue(first.get().isSuccess());
+        assertTrue(second.get().isSuccess());
+        assertTrue(third.get().isSuccess());
+
+        verify(transactionManager).rollback(status);
+        verify(transactionManager, never()).commit(any());
+        verify(ledgerService, times(3)).applyTransfer(anyString(), eq(1L), eq(2L), eq(AMOUNT));
+    }
+
+    @Test
+    void applyTransfer_SharedCommitFails_ShouldApplyBatchIndividually() throws Exception {
+        // Given
+        doThrow(new TransactionSystemException("Connection reset during commit"))
+                .when(transactionManager).commit(status);
+        when(ledgerService.applyTransfer(anyString(), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> TransferResult.success(invocation.getArgument(0), AMOUNT, AMOUNT));
+
+        // When
+        Future<TransferResult> first = submit("T1");
+        Future<TransferResult> second = submit("T2");
+        Future<TransferResult> third = submit("T3");
+
+        // Then
+        assertTrue(first.get().isSuccess());
+        assertTrue(second.get().isSuccess());
+        assertTrue(third.get().isSuccess());
+        verify(ledgerService, times(3)).applyTransfer(anyString(), eq(1L), eq(2L), eq(AMOUNT));
+        // The standalone transfers time themselves
+        assertEquals(0L, operationCount());
+    }
+
+    @Test
+    void applyTransfer_CommitterDiesWithError_ShouldApplyQueuedAndLaterTransfersIndividually() throws Exception {
+        // Given
+        when(ledgerService.applyTransferInCurrentTransaction(eq("T2"), anyLong(), anyLong(), any()))
+                .thenThrow(new AssertionError("Committer bug"));
+        when(ledgerService.applyTransfer(anyString(), anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> TransferResult.success(invocation.getArgument(0), AMOUNT, AMOUNT));
+
+        // When
+        Future<TransferResult> first = submit("T1");
+        Future<TransferResult> second = submit("T2");
+        Future<TransferResult> third = submit("T3");
+
+        // Then
+        assertTrue(first.get(5, TimeUnit.SECONDS).isSuccess());
+        assertTrue(second.get(5, TimeUnit.SECONDS).isSuccess());
+        assertTrue(third.get(5, TimeUnit.SECONDS).isSuccess());
+        assertFalse(coalescer.isRunning());
+        assertTrue(submit("T4").get(5, TimeUnit.SECONDS).isSuccess());
+        verify(ledgerService, times(4)).applyTransfer(anyString(), eq(1L), eq(2L), eq(AMOUNT));
+    }
+
+    private long operationCount() {
+        return meterRegistry.get("ledger.operation.duration").tags("operation", "apply-transfer").timer().count();
+    }
+
+    private Future<TransferResult> submit(String transferId) {
+        return callers.submit(() -> coalescer.applyTransfer(transferId, 1L, 2L, AMOUNT));
+    }
+}
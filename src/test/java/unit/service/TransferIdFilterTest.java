@@ -0,0 +1,77 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.IdempotencyFilterConfig;
+import com.fintech.ledger_service.config.ReplicaRoutingDataSource;
+import com.fintech.ledger_service.repository.LedgerEntryRepository;
+import com.fintech.ledger_service.service.TransferIdFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIdFilterTest {
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Test
+    void seed_ShouldReadRecentTransferIdsFromPrimary() throws InterruptedException {
+        // Given
+        AtomicBoolean seededFromPrimary = new AtomicBoolean();
+        when(ledgerEntryRepository.streamTransferIdsSince(any())).thenAnswer(invocation -> {
+            seededFromPrimary.set(ReplicaRoutingDataSource.isPrimaryRequested());
+            return Stream.of("TXN_1");
+        });
+
+        // When
+        TransferIdFilter filter = seededFilter();
+
+        // Then
+        assertTrue(seededFromPrimary.get());
+        assertFalse(filter.isDefinitelyNew("TXN_1"));
+    }
+
+    @Test
+    void isDefinitelyNew_ShouldNotAddTheIdUntilItIsRecorded() throws InterruptedException {
+        // Given
+        when(ledgerEntryRepository.streamTransferIdsSince(any())).thenReturn(Stream.empty());
+        TransferIdFilter filter = seededFilter();
+
+        // When
+        boolean firstCheck = filter.isDefinitelyNew("TXN_1");
+        // The transfer failed without writing entries; its retry must still be definitely new
+        boolean retryCheck = filter.isDefinitelyNew("TXN_1");
+        filter.record("TXN_1");
+
+        // Then
+        assertTrue(firstCheck);
+        assertTrue(retryCheck);
+        assertFalse(filter.isDefinitelyNew("TXN_1"));
+    }
+
+    private TransferIdFilter seededFilter() throws InterruptedException {
+        IdempotencyFilterConfig config = new IdempotencyFilterConfig();
+        config.setEnabled(true);
+        config.setExpectedInsertions(1000);
+        TransferIdFilter filter = new TransferIdFilter(ledgerEntryRepository, config,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        filter.seed();
+        for (int i = 0; i < 500 && !filter.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(filter.isReady());
+        return filter;
+    }
+}
@@ -0,0 +1,107 @@
+package unit.service;
+
+import com.fintech.ledger_service.config.JournalConfig;
+import com.fintech.ledger_service.domain.JournalRecord;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.service.TransferJournal;
+import com.fintech.ledger_service.util.JournalFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private JournalConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new JournalConfig();
+        config.setEnabled(true);
+        config.setDirectory(directory.toString());
+    }
+
+    @Test
+    void open_UnappliedTransfers_ShouldBeReturnedAfterRestart() throws Exception {
+        // Given
+        TransferJournal journal = new TransferJournal(config);
+        journal.open();
+        journal.recovered();
+        TransferJournal.Appended first = journal.append("TXN_1", 1L, 2L, Money.of("10.00"));
+        TransferJournal.Appended second = journal.append("TXN_2", 2L, 1L, Money.of("2.50"));
+        second.durable().get(5, TimeUnit.SECONDS);
+        journal.markApplied(first.sequence());
+        journal.close();
+
+        // When
+        TransferJournal reopened = new TransferJournal(config);
+        List<JournalRecord> records = reopened.open();
+        reopened.recovered();
+        TransferJournal.Appended next = reopened.append("TXN_3", 1L, 2L, Money.of("1.00"));
+        reopened.close();
+
+        // Then: the segment is kept while any transfer in it is unapplied
+        assertEquals(List.of("TXN_1", "TXN_2"), records.stream().map(JournalRecord::transferId).toList());
+        assertEquals(Money.of("2.50"), records.get(1).amount());
+        assertEquals(3L, next.sequence());
+    }
+
+    @Test
+    void markApplied_FullSegments_ShouldBeDeleted() throws Exception {
+        // Given: segments that hold only a few records
+        config.setSegmentSize(DataSize.ofBytes(256));
+        TransferJournal journal = new TransferJournal(config);
+        journal.open();
+        journal.recovered();
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            TransferJournal.Appended appended = journal.append("TXN_" + i, 1L, 2L, Money.of("1.00"));
+            appended.durable().get(5, TimeUnit.SECONDS);
+            journal.markApplied(appended.sequence());
+        }
+
+        // Then: only the segment still being written remains
+        assertEquals(1, JournalFormat.listSegments(directory).size());
+        journal.close();
+        assertTrue(JournalFormat.listSegments(directory).isEmpty());
+    }
+
+    @Test
+    void readSegment_TornRecord_ShouldStopBeforeIt() throws Exception {
+        // Given
+        TransferJournal journal = new TransferJournal(config);
+        journal.open();
+        journal.recovered();
+        journal.append("TXN_1", 1L, 2L, Money.of("10.00"));
+        journal.append("TXN_2", 1L, 2L, Money.of("20.00")).durable().get(5, TimeUnit.SECONDS);
+        journal.close();
+
+        Path segment = JournalFormat.listSegments(directory).getFirst();
+        int secondRecord = JournalFormat.readSegment(segment).end()
+                - JournalFormat.encode(JournalFormat.readSegment(segment).records().get(1)).length;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(secondRecord + 20);
+            file.write(0x7F);
+        }
+
+        // When
+        JournalFormat.Segment contents = JournalFormat.readSegment(segment);
+
+        // Then
+        assertEquals(1, contents.records().size());
+        assertEquals(secondRecord, contents.end());
+        assertTrue(contents.problem().contains("checksum"));
+    }
+}
@@ -0,0 +1,46 @@
+package unit.util;
+
+import com.fintech.ledger_service.util.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_InsertedIds_ShouldNeverReportFalseNegatives() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("TXN_" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("TXN_" + i));
+        }
+    }
+
+    @Test
+    void mightContain_UnseenIds_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("TXN_" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("OTHER_" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.getFillRatio() > 0 && filter.getFillRatio() < 1);
+    }
+}
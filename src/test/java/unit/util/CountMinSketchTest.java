@@ -0,0 +1,49 @@
+package unit.util;
+
+import com.fintech.ledger_service.util.CountMinSketch;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate_ShouldNeverUndercount() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(0.01, 0.01);
+
+        // When
+        for (long key = 0; key < 5_000; key++) {
+            sketch.add(key, key % 7 + 1);
+        }
+
+        // Then
+        for (long key = 0; key < 5_000; key++) {
+            assertTrue(sketch.estimate(key) >= key % 7 + 1);
+        }
+    }
+
+    @Test
+    void estimate_HeavyHitter_ShouldStayWithinErrorBound() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+        long total = 0;
+        for (long key = 0; key < 10_000; key++) {
+            sketch.add(key, 1);
+            total++;
+        }
+
+        // When
+        long returned = 0;
+        for (int i = 0; i < 5_000; i++) {
+            returned = sketch.add(42L, 1);
+            total++;
+        }
+
+        // Then
+        long trueCount = 5_001;
+        assertEquals(returned, sketch.estimate(42L));
+        assertTrue(sketch.estimate(42L) >= trueCount);
+        assertTrue(sketch.estimate(42L) <= trueCount + 0.001 * total);
+    }
+}
@@ -0,0 +1,100 @@
+package unit.util;
+
+import com.fintech.ledger_service.data.ArchiveFormat;
+import com.fintech.ledger_service.data.EntryType;
+import com.fintech.ledger_service.domain.Money;
+import com.fintech.ledger_service.util.LedgerArchiveFormat;
+import com.fintech.ledger_service.util.LedgerArchiveFormat.AccountRecord;
+import com.fintech.ledger_service.util.LedgerArchiveFormat.ArchiveRecord;
+import com.fintech.ledger_service.util.LedgerArchiveFormat.EntryRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerArchiveFormatTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void readBack_EveryFormat_ShouldReturnTheWrittenRecords() throws IOException {
+        // Given
+        List<ArchiveRecord> records = new ArrayList<>();
+        records.add(new AccountRecord(1L, Money.of("100.00"), TIME, null));
+        // Enough entries to span several binary blocks
+        for (int i = 0; i < 30_000; i++) {
+            records.add(new EntryRecord("E" + i, "TXN_\"" + i + "\"", i % 7, Money.ofMinor(i),
+                    i % 2 == 0 ? EntryType.DEBIT : EntryType.CREDIT, TIME.plusSeconds(i)));
+        }
+
+        for (ArchiveFormat format : ArchiveFormat.values()) {
+            for (boolean compress : new boolean[]{false, true}) {
+                Path file = directory.resolve(format + "-" + compress);
+
+                // When
+                write(file, format, compress, records);
+
+                // Then
+                assertEquals(records, readAll(file), format + (compress ? " compressed" : ""));
+            }
+        }
+    }
+
+    @Test
+    void readBack_TruncatedOrDamagedArchive_ShouldFail() throws IOException {
+        // Given
+        List<ArchiveRecord> records = List.of(new AccountRecord(1L, Money.of("5.00"), TIME, TIME),
+                new EntryRecord("E1", "INITIAL-1", 1L, Money.of("5.00"), EntryType.CREDIT, TIME));
+        Path binary = directory.resolve("ledger.lar");
+        write(binary, ArchiveFormat.BINARY, false, records);
+        byte[] bytes = Files.readAllBytes(binary);
+
+        Path truncated = directory.resolve("truncated.lar");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+        Path damaged = directory.resolve("damaged.lar");
+        bytes[bytes.length - 20] ^= 1;
+        Files.write(damaged, bytes);
+
+        Path ndjson = directory.resolve("ledger.ndjson");
+        write(ndjson, ArchiveFormat.NDJSON, false, records);
+        Path withoutTrailer = directory.resolve("without-trailer.ndjson");
+        List<String> lines = Files.readAllLines(ndjson);
+        Files.write(withoutTrailer, lines.subList(0, lines.size() - 1));
+
+        // When / Then
+        assertThrows(IOException.class, () -> readAll(truncated));
+        assertThrows(IOException.class, () -> readAll(damaged));
+        assertThrows(IOException.class, () -> readAll(withoutTrailer));
+    }
+
+    private static void write(Path file, ArchiveFormat format, boolean compress, List<ArchiveRecord> records)
+            throws IOException {
+        try (LedgerArchiveFormat.Writer writer = LedgerArchiveFormat.newWriter(file, format, compress)) {
+            for (ArchiveRecord record : records) {
+                writer.write(record);
+            }
+            writer.finish();
+        }
+    }
+
+    private static List<ArchiveRecord> readAll(Path file) throws IOException {
+        List<ArchiveRecord> records = new ArrayList<>();
+        try (LedgerArchiveFormat.Reader reader = LedgerArchiveFormat.newReader(file)) {
+            for (ArchiveRecord record = reader.next(); record != null; record = reader.next()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
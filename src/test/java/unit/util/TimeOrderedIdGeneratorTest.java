@@ -0,0 +1,45 @@
+package unit.util;
+
+import com.fintech.ledger_service.util.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void nextId_ShouldBeStrictlyIncreasingInStringOrder() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7);
+        String previous = generator.nextId();
+
+        // When & Then
+        for (int i = 0; i < 100_000; i++) {
+            String id = generator.nextId();
+            assertEquals(TimeOrderedIdGenerator.LENGTH, id.length());
+            assertTrue(id.compareTo(previous) > 0, id + " should sort after " + previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void timestampOf_ShouldRecoverCreationTime() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID);
+        long before = System.currentTimeMillis();
+
+        // When
+        String id = generator.nextId();
+
+        // Then
+        long timestamp = TimeOrderedIdGenerator.timestampOf(id);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_ShouldBeRejected() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1));
+    }
+}